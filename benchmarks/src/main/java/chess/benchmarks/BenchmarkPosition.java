@@ -0,0 +1,68 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Fen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The fixed positions every benchmark runs on, so numbers from different
+ * commits measure the same work
+ */
+public enum BenchmarkPosition {
+    // busy middlegame with castling, pins and en passant tricks for both sides
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"),
+    // Sicilian Dragon after both sides have developed
+    DRAGON("r2q1rk1/pp1bppbp/2np1np1/8/3NP3/2N1BP2/PPPQ2PP/R3KB1R w KQ - 0 10"),
+    // rook and pawn endgame
+    ROOK_ENDGAME("8/5pk1/6p1/3R4/1r5P/6P1/5PK1/8 b - - 0 40"),
+    // king and pawn endgame with few legal moves
+    PAWN_ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+
+    private final String fen;
+
+    BenchmarkPosition(String fen) {
+        this.fen = fen;
+    }
+
+    public String fen() {
+        return fen;
+    }
+
+    /**
+     * @return a new board set up with this position
+     */
+    public ChessBoard board() {
+        ChessBoard board = new ChessBoard();
+        Fen.load(fen, board);
+        return board;
+    }
+
+    /**
+     * @return a new game set up with this position
+     */
+    public ChessGame game() {
+        return ChessGame.fromFen(fen);
+    }
+
+    /**
+     * @return the squares holding a piece that matches the filter, in board order
+     */
+    static List<ChessPosition> squares(ChessBoard board, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        List<ChessPosition> squares = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
+                if (piece != null && (color == null || piece.getTeamColor() == color)
+                        && (type == null || piece.getPieceType() == type)) {
+                    squares.add(ChessPosition.of(row, col));
+                }
+            }
+        }
+        return squares;
+    }
+}
@@ -0,0 +1,63 @@
+package chess.benchmarks;
+
+import chess.BoardSnapshot;
+import chess.ChessBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing, comparing and copying whole boards, which the server does when it
+ * stores and reloads games
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param
+    public BenchmarkPosition position;
+
+    private ChessBoard board;
+    // equal to board but a different object, so equals can't take the identity shortcut
+    private ChessBoard other;
+
+    @Setup
+    public void setUp() {
+        board = position.board();
+        other = position.board();
+    }
+
+    @Benchmark
+    public int hashCodeBoard() {
+        return board.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsBoard() {
+        return board.equals(other);
+    }
+
+    @Benchmark
+    public ChessBoard copyBoard() {
+        return new ChessBoard(board);
+    }
+
+    @Benchmark
+    public BoardSnapshot snapshotBoard() {
+        return board.snapshot();
+    }
+}
@@ -0,0 +1,57 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import chess.Fen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing FEN, as done when importing positions in bulk
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+    @Param
+    public BenchmarkPosition position;
+
+    private final ChessBoard board = new ChessBoard();
+    private final StringBuilder out = new StringBuilder(90);
+    private String fen;
+
+    @Setup
+    public void setUp() {
+        fen = position.fen();
+        Fen.load(fen, board);
+    }
+
+    /**
+     * Loads onto the same board every time, the way a bulk import would
+     */
+    @Benchmark
+    public long load() {
+        Fen.load(fen, board);
+        return board.zobristKey();
+    }
+
+    @Benchmark
+    public int append() {
+        out.setLength(0);
+        return Fen.append(board, out).length();
+    }
+}
@@ -0,0 +1,89 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ChessGame entry points the server calls on every move
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    @Param
+    public BenchmarkPosition position;
+
+    private ChessGame game;
+    private ChessBoard board;
+    private ChessGame.TeamColor sideToMove;
+    private ChessPosition[] ownSquares;
+    private ChessMove move;
+
+    @Setup
+    public void setUp() {
+        game = position.game();
+        board = game.getBoard();
+        sideToMove = game.getTeamTurn();
+        ownSquares = BenchmarkPosition.squares(board, sideToMove, null).toArray(new ChessPosition[0]);
+        for (ChessPosition square : ownSquares) {
+            Collection<ChessMove> moves = game.validMoves(square);
+            if (!moves.isEmpty()) {
+                move = moves.iterator().next();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Legal moves for every piece of the side to move, the way a client
+     * asks for them one square at a time
+     */
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessPosition square : ownSquares) {
+            blackhole.consume(game.validMoves(square));
+        }
+    }
+
+    /**
+     * Validates and plays one move, then takes it back so every invocation
+     * starts from the same position
+     */
+    @Benchmark
+    public void makeMove() throws InvalidMoveException {
+        game.makeMove(move);
+        board.unmakeMove();
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(sideToMove);
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(sideToMove);
+    }
+}
@@ -0,0 +1,82 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import chess.MoveGenerator;
+import chess.MoveList;
+import chess.Notation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading every legal move in SAN and UCI, as done when
+ * importing or broadcasting games
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotationBenchmark {
+
+    @Param
+    public BenchmarkPosition position;
+
+    private ChessBoard board;
+    private final MoveList moves = new MoveList();
+    private final MoveList scratch = new MoveList();
+    private final StringBuilder out = new StringBuilder(8);
+    private String[] san;
+    private String[] uci;
+
+    @Setup
+    public void setUp() {
+        board = position.board();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+        san = new String[moves.size()];
+        uci = new String[moves.size()];
+        for (int i = 0; i < moves.size(); i++) {
+            san[i] = Notation.toSan(board, moves.get(i), moves, scratch);
+            uci[i] = Notation.toUci(moves.get(i));
+        }
+    }
+
+    @Benchmark
+    public int appendSan() {
+        int length = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            out.setLength(0);
+            length += Notation.appendSan(board, moves.get(i), moves, scratch, out).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int parseSan() {
+        int sum = 0;
+        for (String move : san) {
+            sum += Notation.parseSan(move, board, moves);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int parseUci() {
+        int sum = 0;
+        for (String move : uci) {
+            sum += Notation.parseUci(move, moves);
+        }
+        return sum;
+    }
+}
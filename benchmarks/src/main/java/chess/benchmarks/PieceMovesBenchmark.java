@@ -0,0 +1,71 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pseudo-legal move generation for every piece of one type in a position
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceMovesBenchmark {
+
+    @Param
+    public BenchmarkPosition position;
+
+    @Param
+    public ChessPiece.PieceType pieceType;
+
+    private ChessBoard board;
+    private ChessPosition[] squares;
+    private ChessPiece[] pieces;
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setUp() {
+        board = position.board();
+        List<ChessPosition> found = BenchmarkPosition.squares(board, null, pieceType);
+        squares = found.toArray(new ChessPosition[0]);
+        pieces = new ChessPiece[squares.length];
+        for (int i = 0; i < squares.length; i++) {
+            pieces[i] = board.getPiece(squares[i]);
+        }
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (int i = 0; i < squares.length; i++) {
+            blackhole.consume(pieces[i].pieceMoves(board, squares[i]));
+        }
+    }
+
+    @Benchmark
+    public int pieceMovesIntoList() {
+        moves.clear();
+        for (int i = 0; i < squares.length; i++) {
+            pieces[i].pieceMoves(board, squares[i], moves);
+        }
+        return moves.size();
+    }
+}
@@ -0,0 +1,73 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-depth searches, reported as searches per second and, through the
+ * nodes counter, nodes per second
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param
+    public BenchmarkPosition position;
+
+    @Param({"5"})
+    public int depth;
+
+    private final Search search = new Search(4);
+    private ChessGame game;
+    private SearchLimits limits;
+
+    /**
+     * Adds up the nodes searched, which JMH turns into a rate
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        game = position.game();
+        limits = SearchLimits.depth(depth);
+    }
+
+    @Benchmark
+    public int search(Nodes counter) {
+        // start every search with an empty table so each one does the same work
+        search.clear();
+        SearchResult result = search.search(game, limits);
+        counter.nodes += result.getNodes();
+        return result.getScore();
+    }
+}
@@ -0,0 +1,115 @@
+package chess;
+
+/**
+ * Helpers for working with 64-bit bitboards
+ * <p>
+ * Squares are numbered 0 to 63 starting at the bottom left (row 1, column 1)
+ * and moving across each row before moving up to the next one, so bit 0 is
+ * row 1 column 1 and bit 63 is row 8 column 8.
+ */
+final class Bitboards {
+
+    static final long FILE_A = 0x0101010101010101L;
+    static final long FILE_H = FILE_A << 7;
+    static final long RANK_1 = 0xFFL;
+    static final long RANK_8 = RANK_1 << 56;
+    static final long FILE_AB = FILE_A | (FILE_A << 1);
+    static final long FILE_GH = FILE_H | (FILE_H >>> 1);
+
+    // attack sets for a single knight, king or pawn on each square, built once at class load
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    // indexed [color.ordinal() * 64 + square]
+    private static final long[] PAWN_ATTACKS = new long[2 * 64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            long bit = bit(square);
+            KNIGHT_ATTACKS[square] = knightAttackSet(bit);
+            KING_ATTACKS[square] = kingAttackSet(bit);
+            PAWN_ATTACKS[square] = pawnAttackSet(bit, ChessGame.TeamColor.WHITE);
+            PAWN_ATTACKS[64 + square] = pawnAttackSet(bit, ChessGame.TeamColor.BLACK);
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    /**
+     * @return the square index for a 1-based row and column
+     */
+    static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the 1-based row of a square index
+     */
+    static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-based column of a square index
+     */
+    static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    static long bit(int square) {
+        return 1L << square;
+    }
+
+    static boolean isSet(long bitboard, int square) {
+        return (bitboard & (1L << square)) != 0;
+    }
+
+    /**
+     * @return every square a knight on the given square attacks
+     */
+    static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * @return every square a king on the given square attacks
+     */
+    static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return every square a pawn of the given color on the given square
+     * attacks diagonally
+     */
+    static long pawnAttacks(int square, ChessGame.TeamColor color) {
+        return PAWN_ATTACKS[color.ordinal() * 64 + square];
+    }
+
+    private static long knightAttackSet(long knights) {
+        return ((knights << 17) & ~FILE_A) | ((knights << 15) & ~FILE_H)
+                | ((knights << 10) & ~FILE_AB) | ((knights << 6) & ~FILE_GH)
+                | ((knights >>> 17) & ~FILE_H) | ((knights >>> 15) & ~FILE_A)
+                | ((knights >>> 10) & ~FILE_GH) | ((knights >>> 6) & ~FILE_AB);
+    }
+
+    private static long kingAttackSet(long kings) {
+        long sideways = ((kings << 1) & ~FILE_A) | ((kings >>> 1) & ~FILE_H);
+        long row = kings | sideways;
+        return sideways | (row << 8) | (row >>> 8);
+    }
+
+    /**
+     * @return every square attacked by at least one of the given pawns
+     */
+    static long pawnAttackSet(long pawns, ChessGame.TeamColor color) {
+        if (color == ChessGame.TeamColor.WHITE) {
+            return ((pawns << 9) & ~FILE_A) | ((pawns << 7) & ~FILE_H);
+        }
+        return ((pawns >>> 7) & ~FILE_A) | ((pawns >>> 9) & ~FILE_H);
+    }
+}
@@ -0,0 +1,134 @@
+package chess;
+
+/**
+ * An immutable copy of a board's position, made with {@link ChessBoard#snapshot()}
+ * <p>
+ * The pieces are stored as four bitboards, one per bit of a 4-bit piece code
+ * (piece index + 1, or 0 for an empty square), so taking a snapshot is a
+ * handful of long operations and no arrays are copied. Every field is final,
+ * so a snapshot can be handed to any thread and read without locking.
+ */
+public final class BoardSnapshot {
+
+    private final long plane0;
+    private final long plane1;
+    private final long plane2;
+    private final long plane3;
+    private final ChessGame.TeamColor sideToMove;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private final int halfmoveClock;
+    private final int fullmoveNumber;
+    private final long zobristKey;
+
+    BoardSnapshot(long[] pieceBitboards, ChessGame.TeamColor sideToMove, int castlingRights,
+                  int enPassantSquare, int halfmoveClock, int fullmoveNumber, long zobristKey) {
+        long p0 = 0;
+        long p1 = 0;
+        long p2 = 0;
+        long p3 = 0;
+        for (int index = 0; index < pieceBitboards.length; index++) {
+            int code = index + 1;
+            long pieces = pieceBitboards[index];
+            p0 |= (code & 1) != 0 ? pieces : 0;
+            p1 |= (code & 2) != 0 ? pieces : 0;
+            p2 |= (code & 4) != 0 ? pieces : 0;
+            p3 |= (code & 8) != 0 ? pieces : 0;
+        }
+        this.plane0 = p0;
+        this.plane1 = p1;
+        this.plane2 = p2;
+        this.plane3 = p3;
+        this.sideToMove = sideToMove;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        this.zobristKey = zobristKey;
+    }
+
+    /**
+     * @param position the square to look at
+     * @return the piece on the square when the snapshot was taken, or null
+     */
+    public ChessPiece getPiece(ChessPosition position) {
+        return getPiece(Bitboards.square(position));
+    }
+
+    ChessPiece getPiece(int square) {
+        int code = (int) ((plane0 >>> square) & 1)
+                | (int) ((plane1 >>> square) & 1) << 1
+                | (int) ((plane2 >>> square) & 1) << 2
+                | (int) ((plane3 >>> square) & 1) << 3;
+        return code == 0 ? null : ChessPiece.of(code - 1);
+    }
+
+    /**
+     * @return every square holding a piece
+     */
+    long occupied() {
+        return plane0 | plane1 | plane2 | plane3;
+    }
+
+    public ChessGame.TeamColor getSideToMove() {
+        return sideToMove;
+    }
+
+    int getCastlingRights() {
+        return castlingRights;
+    }
+
+    int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * @return the Zobrist key of the board when the snapshot was taken
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return a new mutable board set up like the snapshot, with no moves to undo
+     */
+    public ChessBoard toBoard() {
+        ChessBoard board = new ChessBoard();
+        long pieces = occupied();
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            board.addPiece(ChessPosition.of(square), getPiece(square));
+        }
+        board.setSideToMove(sideToMove);
+        board.setCastlingRights(castlingRights);
+        board.setEnPassantSquare(enPassantSquare);
+        board.setHalfmoveClock(halfmoveClock);
+        board.setFullmoveNumber(fullmoveNumber);
+        return board;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BoardSnapshot that = (BoardSnapshot) o;
+        return zobristKey == that.zobristKey && plane0 == that.plane0 && plane1 == that.plane1
+                && plane2 == that.plane2 && plane3 == that.plane3 && sideToMove == that.sideToMove
+                && castlingRights == that.castlingRights && enPassantSquare == that.enPassantSquare
+                && halfmoveClock == that.halfmoveClock && fullmoveNumber == that.fullmoveNumber;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (zobristKey ^ (zobristKey >>> 32));
+    }
+}
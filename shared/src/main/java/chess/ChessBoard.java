@@ -1,7 +1,6 @@
 package chess;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -10,25 +9,118 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessBoard {
-    private ChessPiece[][] squares = new ChessPiece[8][8];
+    // one bitboard per color and piece type, indexed by ChessPiece.getIndex()
+    private final long[] pieceBitboards = new long[12];
+    // one bitboard per color, indexed by TeamColor.ordinal()
+    private final long[] colorBitboards = new long[2];
+    private long occupied;
+    // square-indexed mirror of the bitboards so getPiece is a single lookup
+    private final ChessPiece[] squares = new ChessPiece[64];
+    // unordered list of the squares each color occupies, indexed by TeamColor.ordinal()
+    private final int[][] pieceLists = new int[2][64];
+    private final int[] pieceCounts = new int[2];
+    // where each occupied square sits in its color's piece list, so removal is a swap with the last entry
+    private final int[] pieceListIndex = new int[64];
+    private final int[] kingSquares = {NO_SQUARE, NO_SQUARE};
+
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+    static final int ALL_CASTLING = 15;
+    static final int NO_SQUARE = -1;
+    // the undo record keeps the halfmove clock in its top 16 bits
+    static final int MAX_HALFMOVE_CLOCK = 0xFFFF;
+
+    // castling rights that survive a move touching each square
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASKS, ALL_CASTLING);
+        CASTLING_MASKS[Bitboards.square(1, 1)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASKS[Bitboards.square(1, 5)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASKS[Bitboards.square(1, 8)] &= ~WHITE_KINGSIDE;
+        CASTLING_MASKS[Bitboards.square(8, 1)] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASKS[Bitboards.square(8, 5)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[Bitboards.square(8, 8)] &= ~BLACK_KINGSIDE;
+    }
+
+    private ChessGame.TeamColor sideToMove = ChessGame.TeamColor.WHITE;
+    // a right only means the king and rook haven't moved; the move generator
+    // still checks that they are actually on their starting squares
+    private int castlingRights = ALL_CASTLING;
+    // the square a pawn skipped over on the last move, if an enemy pawn could capture onto it
+    private int enPassantSquare = NO_SQUARE;
+    private int halfmoveClock;
+    // starts at 1 and goes up after each black move
+    private int fullmoveNumber = 1;
+
+    // Zobrist key of the piece placement alone, which is what equals compares
+    private long pieceKey;
+    // Zobrist key of the whole position: pieces, side to move, castling and en passant
+    private long zobristKey = Zobrist.castling(ALL_CASTLING);
+
+    // undo stack for makeMove/unmakeMove. Each entry is the move that was made,
+    // the Zobrist key before it, and the rest of the state it destroyed, packed as:
+    //   bits  0-3   captured piece index + 1, or 0 for no capture
+    //   bits  4-7   castling rights
+    //   bits  8-14  en passant square + 1, or 0 for none
+    //   bits 16-31  halfmove clock
+    private int[] undoMoves = new int[64];
+    private int[] undoStates = new int[64];
+    private long[] undoKeys = new long[64];
+    private int undoCount;
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        return pieceKey == that.pieceKey && Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
+    /**
+     * Boards are equal when their pieces are, so the hash only folds in the
+     * placement part of the Zobrist key. Use {@link #zobristKey()} when the
+     * side to move, castling rights and en passant square matter.
+     */
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return (int) (pieceKey ^ (pieceKey >>> 32));
     }
 
     public ChessBoard() {
         
     }
 
+    /**
+     * Creates an independent copy of another board's position, including the
+     * side to move, castling rights, en passant square and halfmove clock.
+     * The undo history is not copied, so the copy starts with nothing to
+     * unmake.
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        System.arraycopy(other.pieceBitboards, 0, pieceBitboards, 0, pieceBitboards.length);
+        System.arraycopy(other.colorBitboards, 0, colorBitboards, 0, colorBitboards.length);
+        occupied = other.occupied;
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+        for (int color = 0; color < 2; color++) {
+            System.arraycopy(other.pieceLists[color], 0, pieceLists[color], 0, other.pieceCounts[color]);
+        }
+        System.arraycopy(other.pieceCounts, 0, pieceCounts, 0, pieceCounts.length);
+        System.arraycopy(other.pieceListIndex, 0, pieceListIndex, 0, pieceListIndex.length);
+        System.arraycopy(other.kingSquares, 0, kingSquares, 0, kingSquares.length);
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        pieceKey = other.pieceKey;
+        zobristKey = other.zobristKey;
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -36,7 +128,11 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow()-1][position.getColumn()-1] = piece;
+        int square = Bitboards.square(position);
+        removePiece(square);
+        if (piece != null) {
+            placePiece(square, ChessPiece.of(piece.getIndex()));
+        }
     }
 
     /**
@@ -47,7 +143,441 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow()-1][position.getColumn()-1];
+        return squares[Bitboards.square(position)];
+    }
+
+    ChessPiece getPiece(int square) {
+        return squares[square];
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given color and
+     * type, see {@link Bitboards} for the square numbering
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceBitboards[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given color
+     */
+    long occupancy(ChessGame.TeamColor color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    long occupied() {
+        return occupied;
+    }
+
+    /**
+     * @return the position of the given team's king, or null if it has none
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = kingSquares[color.ordinal()];
+        return square == NO_SQUARE ? null : ChessPosition.of(square);
+    }
+
+    /**
+     * @return the square of the given team's king, or NO_SQUARE if it has none
+     */
+    int getKingSquare(ChessGame.TeamColor color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * @return how many pieces the given team has on the board
+     */
+    public int getPieceCount(ChessGame.TeamColor color) {
+        return pieceCounts[color.ordinal()];
+    }
+
+    /**
+     * Walks a team's pieces without allocating, for example
+     * <pre>
+     * for (int i = 0; i &lt; board.getPieceCount(color); i++) {
+     *     ChessPosition position = board.getPiecePosition(color, i);
+     *     ...
+     * }
+     * </pre>
+     * The order is unspecified and changes as pieces move.
+     *
+     * @param index a number from 0 up to {@link #getPieceCount}
+     * @return the position of that piece
+     */
+    public ChessPosition getPiecePosition(ChessGame.TeamColor color, int index) {
+        return ChessPosition.of(pieceLists[color.ordinal()][index]);
+    }
+
+    /**
+     * @return the square of a piece, indexed the same way as getPiecePosition
+     */
+    int getPieceSquare(ChessGame.TeamColor color, int index) {
+        return pieceLists[color.ordinal()][index];
+    }
+
+    /**
+     * Determines if any piece of the given team attacks a square
+     *
+     * @param position the square to test
+     * @param attacker the team whose pieces might attack it
+     * @return True if a piece of the attacking team could capture on that square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor attacker) {
+        return isSquareAttacked(Bitboards.square(position), attacker);
+    }
+
+    /**
+     * Finds every piece of the given team that attacks a square
+     *
+     * @param position the square to test
+     * @param attacker the team whose pieces might attack it
+     * @return bitboard of the attacking pieces' squares, see {@link Bitboards}
+     */
+    public long attackersOf(ChessPosition position, ChessGame.TeamColor attacker) {
+        return attackersOf(Bitboards.square(position), occupied, attacker);
+    }
+
+    /**
+     * @return True if the given team's king is attacked, and false if it
+     * has no king
+     */
+    public boolean isInCheck(ChessGame.TeamColor color) {
+        int kingSquare = kingSquares[color.ordinal()];
+        return kingSquare != NO_SQUARE && isSquareAttacked(kingSquare, MoveGenerator.opponent(color));
+    }
+
+    boolean isSquareAttacked(int square, ChessGame.TeamColor attacker) {
+        return attackersOf(square, occupied, attacker) != 0;
+    }
+
+    /**
+     * Looks outward from a square for attackers instead of generating the
+     * attacker's moves: a knight attacks the square exactly when a knight on
+     * the square would attack the knight, and likewise for the other pieces.
+     *
+     * @param occupied the squares that block sliding pieces, which callers can
+     *                 vary to ask what would be attacked after a move
+     */
+    long attackersOf(int square, long occupied, ChessGame.TeamColor attacker) {
+        int base = attacker.ordinal() * 6;
+        long queens = pieceBitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long diagonalSliders = pieceBitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        long straightSliders = pieceBitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        return (Bitboards.knightAttacks(square) & pieceBitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (Bitboards.kingAttacks(square) & pieceBitboards[base + ChessPiece.PieceType.KING.ordinal()])
+                | (Bitboards.pawnAttacks(square, MoveGenerator.opponent(attacker))
+                & pieceBitboards[base + ChessPiece.PieceType.PAWN.ordinal()])
+                | (SlidingAttacks.bishopAttacks(square, occupied) & diagonalSliders)
+                | (SlidingAttacks.rookAttacks(square, occupied) & straightSliders);
+    }
+
+    /**
+     * @return the team whose turn it is on this board
+     */
+    public ChessGame.TeamColor getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(ChessGame.TeamColor sideToMove) {
+        if (sideToMove != this.sideToMove) {
+            zobristKey ^= Zobrist.BLACK_TO_MOVE;
+        }
+        this.sideToMove = sideToMove;
+    }
+
+    int getCastlingRights() {
+        return castlingRights;
+    }
+
+    void setCastlingRights(int castlingRights) {
+        zobristKey ^= Zobrist.castling(this.castlingRights) ^ Zobrist.castling(castlingRights);
+        this.castlingRights = castlingRights;
+    }
+
+    /**
+     * @return the en passant target square, or NO_SQUARE if there is none
+     */
+    int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    void setEnPassantSquare(int enPassantSquare) {
+        zobristKey ^= Zobrist.enPassant(this.enPassantSquare) ^ Zobrist.enPassant(enPassantSquare);
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    /**
+     * @return the number of moves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the clock is negative or above
+     *                                  {@link #MAX_HALFMOVE_CLOCK}
+     */
+    void setHalfmoveClock(int halfmoveClock) {
+        if (halfmoveClock < 0 || halfmoveClock > MAX_HALFMOVE_CLOCK) {
+            throw new IllegalArgumentException("Halfmove clock " + halfmoveClock + " is out of range");
+        }
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current full move, which starts at 1 and goes
+     * up after each move by black
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Makes a move in place and records what is needed to take it back with
+     * {@link #unmakeMove()}. The move is not checked for legality.
+     *
+     * @param move a move encoded with {@link Move}, as produced by {@link MoveGenerator}
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int kind = Move.kind(move);
+        ChessPiece piece = squares[from];
+        int captureSquare = to;
+        if (kind == Move.EN_PASSANT) {
+            captureSquare = sideToMove == ChessGame.TeamColor.WHITE ? to - 8 : to + 8;
+        }
+        ChessPiece captured = squares[captureSquare];
+
+        if (undoCount == undoMoves.length) {
+            undoMoves = Arrays.copyOf(undoMoves, undoCount * 2);
+            undoStates = Arrays.copyOf(undoStates, undoCount * 2);
+            undoKeys = Arrays.copyOf(undoKeys, undoCount * 2);
+        }
+        undoMoves[undoCount] = move;
+        undoStates[undoCount] = (captured == null ? 0 : captured.getIndex() + 1)
+                | (castlingRights << 4)
+                | ((enPassantSquare + 1) << 8)
+                | (halfmoveClock << 16);
+        undoKeys[undoCount] = zobristKey;
+        undoCount++;
+
+        if (captured != null) {
+            removePiece(captureSquare);
+        }
+        removePiece(from);
+        ChessPiece.PieceType promotion = Move.promotionPiece(move);
+        placePiece(to, promotion == null ? piece : ChessPiece.of(piece.getTeamColor(), promotion));
+
+        if (kind == Move.CASTLING) {
+            // the rook jumps to the square the king passed over
+            int rookFrom = to > from ? from + 3 : from - 4;
+            ChessPiece rook = squares[rookFrom];
+            removePiece(rookFrom);
+            placePiece((from + to) / 2, rook);
+        }
+
+        setEnPassantSquare(NO_SQUARE);
+        if (kind == Move.DOUBLE_PAWN_PUSH) {
+            long enemyPawns = pieces(MoveGenerator.opponent(sideToMove), ChessPiece.PieceType.PAWN);
+            long besideTo = (Bitboards.bit(to) << 1 & ~Bitboards.FILE_A) | (Bitboards.bit(to) >>> 1 & ~Bitboards.FILE_H);
+            if ((enemyPawns & besideTo) != 0) {
+                setEnPassantSquare((from + to) / 2);
+            }
+        }
+
+        setCastlingRights(castlingRights & CASTLING_MASKS[from] & CASTLING_MASKS[to]);
+        if (captured != null || piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            halfmoveClock = 0;
+        } else if (halfmoveClock < MAX_HALFMOVE_CLOCK) {
+            halfmoveClock++;
+        }
+        if (sideToMove == ChessGame.TeamColor.BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = MoveGenerator.opponent(sideToMove);
+        zobristKey ^= Zobrist.BLACK_TO_MOVE;
+    }
+
+    /**
+     * Takes back the last move made with {@link #makeMove(int)}, restoring the
+     * board exactly as it was
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        undoCount--;
+        int move = undoMoves[undoCount];
+        int state = undoStates[undoCount];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int kind = Move.kind(move);
+        sideToMove = MoveGenerator.opponent(sideToMove);
+        if (sideToMove == ChessGame.TeamColor.BLACK) {
+            fullmoveNumber--;
+        }
+
+        ChessPiece piece = squares[to];
+        removePiece(to);
+        placePiece(from, Move.isPromotion(move)
+                ? ChessPiece.of(piece.getTeamColor(), ChessPiece.PieceType.PAWN) : piece);
+
+        if (kind == Move.CASTLING) {
+            int rookTo = (from + to) / 2;
+            ChessPiece rook = squares[rookTo];
+            removePiece(rookTo);
+            placePiece(to > from ? from + 3 : from - 4, rook);
+        }
+
+        int capturedIndex = state & 0xF;
+        if (capturedIndex != 0) {
+            int captureSquare = to;
+            if (kind == Move.EN_PASSANT) {
+                captureSquare = sideToMove == ChessGame.TeamColor.WHITE ? to - 8 : to + 8;
+            }
+            placePiece(captureSquare, ChessPiece.of(capturedIndex - 1));
+        }
+
+        castlingRights = (state >>> 4) & 0xF;
+        enPassantSquare = ((state >>> 8) & 0x7F) - 1;
+        halfmoveClock = state >>> 16;
+        // the piece moves above kept pieceKey in step; the full key is simply restored
+        zobristKey = undoKeys[undoCount];
+    }
+
+    /**
+     * Takes an immutable copy of the position that can be read from any
+     * thread. It costs a few dozen long operations, so it is fine to take
+     * one for every reader.
+     *
+     * @return the current pieces, side to move, castling rights, en passant
+     * square, halfmove clock and fullmove number
+     */
+    public BoardSnapshot snapshot() {
+        return new BoardSnapshot(pieceBitboards, sideToMove, castlingRights, enPassantSquare,
+                halfmoveClock, fullmoveNumber, zobristKey);
+    }
+
+    /**
+     * Counts how many times the current position has come up before in the
+     * moves made on this board. Only positions since the last capture or
+     * pawn move can repeat, and only every other one has the same side to
+     * move, so this walks back over the Zobrist keys on the undo stack two
+     * plies at a time and stops at the halfmove clock.
+     * <p>
+     * The undo stack is the only history the board keeps, so positions from
+     * before it was cleared, reset, copied or loaded from FEN are not counted.
+     *
+     * @return the number of earlier occurrences, so 2 means a threefold repetition
+     */
+    public int repetitionCount() {
+        int oldest = Math.max(0, undoCount - halfmoveClock);
+        int count = 0;
+        // the position two plies back can't match, since both sides would have had to pass
+        for (int i = undoCount - 4; i >= oldest; i -= 2) {
+            if (undoKeys[i] == zobristKey) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of moves made with makeMove that can still be taken back
+     */
+    public int getUndoCount() {
+        return undoCount;
+    }
+
+    /**
+     * @param index 0 for the first move made on this board, up to getUndoCount() - 1
+     * @return a move that can still be taken back, in the order they were made
+     */
+    int getUndoMove(int index) {
+        return undoMoves[index];
+    }
+
+    /**
+     * @return a 64-bit Zobrist key for the position, covering the pieces, the
+     * side to move, castling rights and the en passant square. It is kept up to
+     * date incrementally, so this is just a field read.
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    private void placePiece(int square, ChessPiece piece) {
+        long key = Zobrist.piece(piece.getIndex(), square);
+        pieceKey ^= key;
+        zobristKey ^= key;
+        long bit = Bitboards.bit(square);
+        int color = piece.getTeamColor().ordinal();
+        pieceBitboards[piece.getIndex()] |= bit;
+        colorBitboards[color] |= bit;
+        occupied |= bit;
+        squares[square] = piece;
+
+        pieceListIndex[square] = pieceCounts[color];
+        pieceLists[color][pieceCounts[color]++] = square;
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            kingSquares[color] = square;
+        }
+    }
+
+    private void removePiece(int square) {
+        ChessPiece piece = squares[square];
+        if (piece == null) {
+            return;
+        }
+        long key = Zobrist.piece(piece.getIndex(), square);
+        pieceKey ^= key;
+        zobristKey ^= key;
+        long bit = Bitboards.bit(square);
+        int color = piece.getTeamColor().ordinal();
+        pieceBitboards[piece.getIndex()] &= ~bit;
+        colorBitboards[color] &= ~bit;
+        occupied &= ~bit;
+        squares[square] = null;
+
+        int last = pieceLists[color][--pieceCounts[color]];
+        pieceLists[color][pieceListIndex[square]] = last;
+        pieceListIndex[last] = pieceListIndex[square];
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            // boards built with addPiece can hold more than one king
+            long kings = pieceBitboards[piece.getIndex()];
+            kingSquares[color] = kings == 0 ? NO_SQUARE : Long.numberOfTrailingZeros(kings);
+        }
+    }
+
+    /**
+     * Removes every piece and resets the rest of the state to an empty
+     * position with white to move, no castling rights and nothing to undo
+     */
+    public void clear() {
+        Arrays.fill(pieceBitboards, 0);
+        Arrays.fill(colorBitboards, 0);
+        occupied = 0;
+        Arrays.fill(squares, null);
+        Arrays.fill(pieceCounts, 0);
+        Arrays.fill(kingSquares, NO_SQUARE);
+        sideToMove = ChessGame.TeamColor.WHITE;
+        castlingRights = 0;
+        enPassantSquare = NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        pieceKey = 0;
+        zobristKey = 0;
+        undoCount = 0;
     }
 
     /**
@@ -55,43 +585,49 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        //*
-        ChessPiece whiteRook = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        ChessPiece blackRook = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-        squares[0][0] = whiteRook;
-        squares[0][7] = whiteRook;
-        squares[7][0] = blackRook;
-        squares[7][7] = blackRook;
-
-        ChessPiece whiteKnight = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        ChessPiece blackKnight = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        squares[0][1] = whiteKnight;
-        squares[0][6] = whiteKnight;
-        squares[7][1] = blackKnight;
-        squares[7][6] = blackKnight;
-
-        ChessPiece whiteBishop = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        ChessPiece blackBishop = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        squares[0][2] = whiteBishop;
-        squares[0][5] = whiteBishop;
-        squares[7][2] = blackBishop;
-        squares[7][5] = blackBishop;
-
-        ChessPiece whiteQueen = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
-        ChessPiece blackQueen = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
-        squares[0][3] = whiteQueen;
-        squares[7][3] = blackQueen;
-
-        ChessPiece whiteKing = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
-        ChessPiece blackKing = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
-        squares[0][4] = whiteKing;
-        squares[7][4] = blackKing;
-
-        ChessPiece whitePawn = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-        ChessPiece blackPawn = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+        setSideToMove(ChessGame.TeamColor.WHITE);
+        setCastlingRights(ALL_CASTLING);
+        setEnPassantSquare(NO_SQUARE);
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoCount = 0;
+
+        ChessPiece whiteRook = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        ChessPiece blackRook = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        addPiece(ChessPosition.of(1, 1), whiteRook);
+        addPiece(ChessPosition.of(1, 8), whiteRook);
+        addPiece(ChessPosition.of(8, 1), blackRook);
+        addPiece(ChessPosition.of(8, 8), blackRook);
+
+        ChessPiece whiteKnight = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
+        ChessPiece blackKnight = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        addPiece(ChessPosition.of(1, 2), whiteKnight);
+        addPiece(ChessPosition.of(1, 7), whiteKnight);
+        addPiece(ChessPosition.of(8, 2), blackKnight);
+        addPiece(ChessPosition.of(8, 7), blackKnight);
+
+        ChessPiece whiteBishop = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
+        ChessPiece blackBishop = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+        addPiece(ChessPosition.of(1, 3), whiteBishop);
+        addPiece(ChessPosition.of(1, 6), whiteBishop);
+        addPiece(ChessPosition.of(8, 3), blackBishop);
+        addPiece(ChessPosition.of(8, 6), blackBishop);
+
+        ChessPiece whiteQueen = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
+        ChessPiece blackQueen = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
+        addPiece(ChessPosition.of(1, 4), whiteQueen);
+        addPiece(ChessPosition.of(8, 4), blackQueen);
+
+        ChessPiece whiteKing = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
+        ChessPiece blackKing = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
+        addPiece(ChessPosition.of(1, 5), whiteKing);
+        addPiece(ChessPosition.of(8, 5), blackKing);
+
+        ChessPiece whitePawn = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        ChessPiece blackPawn = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
         for (int i = 0; i < 8; i++) {
-            squares[1][i] = whitePawn;
-            squares[6][i] = blackPawn;
+            addPiece(ChessPosition.of(2, i + 1), whitePawn);
+            addPiece(ChessPosition.of(7, i + 1), blackPawn);
         }
     }
 }
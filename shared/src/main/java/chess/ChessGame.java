@@ -1,5 +1,7 @@
 package chess;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
 
 /**
@@ -11,16 +13,21 @@ import java.util.Collection;
 public class ChessGame {
 
     public ChessGame() {
-
+        board.resetBoard();
     }
 
-    private TeamColor teamTurn = TeamColor.WHITE;
+    private ChessBoard board = new ChessBoard();
+    // legal moves for the current position, generated on first use and
+    // shared by validMoves, makeMove and the game status queries
+    private final LegalMoveTable legalMoves = new LegalMoveTable();
+    // scratch buffer for hasAnyValidMove when the table isn't already built, and for toSan's mate check
+    private final MoveList candidateMoves = new MoveList();
 
     /**
      * @return Which team's turn it is
      */
     public TeamColor getTeamTurn() {
-        return teamTurn;
+        return board.getSideToMove();
     }
 
     /**
@@ -29,7 +36,7 @@ public class ChessGame {
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
-        teamTurn = team;
+        board.setSideToMove(team);
     }
 
     /**
@@ -48,7 +55,18 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        throw new RuntimeException("Not implemented");
+        if (!startPosition.isOnBoard() || board.getPiece(startPosition) == null) {
+            return null;
+        }
+        ChessPiece piece = board.getPiece(startPosition);
+        legalMoves.update(board, piece.getTeamColor());
+        int square = Bitboards.square(startPosition);
+        int end = legalMoves.end(square);
+        ArrayList<ChessMove> moves = new ArrayList<>(end - legalMoves.start(square));
+        for (int i = legalMoves.start(square); i < end; i++) {
+            moves.add(Move.toChessMove(legalMoves.get(i)));
+        }
+        return moves;
     }
 
     /**
@@ -58,7 +76,29 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        throw new RuntimeException("Not implemented");
+        ChessPosition start = move.getStartPosition();
+        if (!start.isOnBoard() || !move.getEndPosition().isOnBoard()) {
+            throw new InvalidMoveException("Move is off the board");
+        }
+        ChessPiece piece = board.getPiece(start);
+        if (piece == null) {
+            throw new InvalidMoveException("No piece at the start position");
+        }
+        if (piece.getTeamColor() != getTeamTurn()) {
+            throw new InvalidMoveException("It is not " + piece.getTeamColor() + "'s turn");
+        }
+
+        legalMoves.update(board, piece.getTeamColor());
+        int square = Bitboards.square(start);
+        for (int i = legalMoves.start(square); i < legalMoves.end(square); i++) {
+            int candidate = legalMoves.get(i);
+            if (Move.matches(candidate, move)) {
+                board.makeMove(candidate);
+                legalMoves.invalidate();
+                return;
+            }
+        }
+        throw new InvalidMoveException("Illegal move");
     }
 
     /**
@@ -68,7 +108,7 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return board.isInCheck(teamColor);
     }
 
     /**
@@ -78,7 +118,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return isInCheck(teamColor) && !hasAnyValidMove(teamColor);
     }
 
     /**
@@ -89,16 +129,140 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return !isInCheck(teamColor) && !hasAnyValidMove(teamColor);
+    }
+
+    /**
+     * Determines if the current position has now come up three times with the
+     * same side to move, castling rights and en passant options. Only moves
+     * made since the board was last set count, so a game started with
+     * {@link #setBoard} or {@link #fromFen} forgets any earlier history.
+     *
+     * @return True if the game can be drawn by threefold repetition
+     */
+    public boolean isThreefoldRepetition() {
+        return board.repetitionCount() >= 2;
+    }
+
+    /**
+     * Determines if fifty moves by each side have gone by without a capture or
+     * a pawn move
+     *
+     * @return True if the game can be drawn by the fifty-move rule
+     */
+    public boolean isFiftyMoveRule() {
+        return board.getHalfmoveClock() >= 100;
+    }
+
+    /**
+     * Creates a game from a position in Forsyth-Edwards Notation
+     *
+     * @param fen the position, see {@link Fen}
+     * @return a new game at that position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame fromFen(String fen) {
+        ChessGame game = new ChessGame();
+        Fen.load(fen, game.board);
+        return game;
+    }
+
+    /**
+     * @return the current position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        return Fen.toFen(board);
+    }
+
+    /**
+     * Creates a game from a position written by {@link #encode(ByteBuffer)}
+     *
+     * @param in the buffer to read from, which is advanced past the position
+     * @return a new game at that position
+     * @throws IllegalArgumentException if the bytes don't describe a position
+     */
+    public static ChessGame decode(ByteBuffer in) {
+        ChessGame game = new ChessGame();
+        CompactPosition.read(in, game.board);
+        return game;
+    }
+
+    /**
+     * Writes the current position in the fixed-size form described in
+     * {@link CompactPosition}
+     *
+     * @param out the buffer to write to, which must have
+     *            {@link CompactPosition#ENCODED_SIZE} bytes left
+     * @throws IllegalArgumentException if the position can't be encoded
+     */
+    public void encode(ByteBuffer out) {
+        CompactPosition.write(board, out);
+    }
+
+    /**
+     * Reads a move for the team whose turn it is, written in either UCI
+     * ({@code g1f3}) or SAN ({@code Nf3}), see {@link Notation}
+     *
+     * @param notation the move as a player or bot sent it
+     * @return the move, ready for {@link #makeMove(ChessMove)}
+     * @throws InvalidMoveException     if the move is not legal here
+     * @throws IllegalArgumentException if the string is neither UCI nor SAN
+     */
+    public ChessMove parseMove(String notation) throws InvalidMoveException {
+        legalMoves.update(board, getTeamTurn());
+        int move = isUci(notation)
+                ? Notation.parseUci(notation, legalMoves.moves())
+                : Notation.parseSan(notation, board, legalMoves.moves());
+        if (move == Move.NONE) {
+            throw new InvalidMoveException("Illegal move " + notation);
+        }
+        return Move.toChessMove(move);
+    }
+
+    /**
+     * Writes a move for the team whose turn it is in SAN, such as
+     * {@code Nbd7+}
+     *
+     * @param move a legal move in the current position
+     * @return the move in SAN
+     * @throws InvalidMoveException if the move is not legal here
+     */
+    public String toSan(ChessMove move) throws InvalidMoveException {
+        legalMoves.update(board, getTeamTurn());
+        MoveList moves = legalMoves.moves();
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.matches(moves.get(i), move)) {
+                return Notation.toSan(board, moves.get(i), moves, candidateMoves);
+            }
+        }
+        throw new InvalidMoveException("Illegal move");
+    }
+
+    /**
+     * UCI is always a file and row, another file and row, and maybe a
+     * lowercase promotion letter, which SAN never is
+     */
+    private static boolean isUci(String notation) {
+        int length = notation.length();
+        return (length == 4 || length == 5)
+                && notation.charAt(0) >= 'a' && notation.charAt(0) <= 'h'
+                && notation.charAt(1) >= '1' && notation.charAt(1) <= '8'
+                && notation.charAt(2) >= 'a' && notation.charAt(2) <= 'h'
+                && notation.charAt(3) >= '1' && notation.charAt(3) <= '8';
     }
 
     /**
      * Sets this game's chessboard with a given board
+     * <p>
+     * The game plays on the board itself rather than a copy, and takes whose
+     * turn it is from the board, so a board loaded from FEN keeps its side
+     * to move.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
-        throw new RuntimeException("Not implemented");
+        this.board = board;
+        legalMoves.invalidate();
     }
 
     /**
@@ -107,6 +271,48 @@ public class ChessGame {
      * @return the chessboard
      */
     public ChessBoard getBoard() {
-        throw new RuntimeException("Not implemented");
+        return board;
+    }
+
+    /**
+     * Gets every legal move for a team in one pass, rather than asking
+     * validMoves about each square
+     *
+     * @param teamColor which team to get moves for
+     * @return every legal move for the team, grouped by start position
+     */
+    public Collection<ChessMove> allValidMoves(TeamColor teamColor) {
+        legalMoves.update(board, teamColor);
+        ArrayList<ChessMove> moves = new ArrayList<>(legalMoves.size());
+        for (int i = 0; i < legalMoves.size(); i++) {
+            moves.add(Move.toChessMove(legalMoves.get(i)));
+        }
+        return moves;
+    }
+
+    /**
+     * Counts the legal moves for a team without creating any ChessMoves
+     *
+     * @param teamColor which team to count moves for
+     * @return how many legal moves the team has
+     */
+    public int countValidMoves(TeamColor teamColor) {
+        legalMoves.update(board, teamColor);
+        return legalMoves.size();
+    }
+
+    /**
+     * Determines if a team has at least one legal move. This stops at the
+     * first piece type with a move unless the full move list for the position
+     * has already been built.
+     *
+     * @param teamColor which team to look for moves for
+     * @return True if the team can move
+     */
+    public boolean hasAnyValidMove(TeamColor teamColor) {
+        if (legalMoves.isCurrent(board, teamColor)) {
+            return legalMoves.size() > 0;
+        }
+        return MoveGenerator.hasLegalMove(board, teamColor, candidateMoves);
     }
 }
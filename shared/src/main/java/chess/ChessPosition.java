@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -10,6 +8,15 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
+    // interned positions for the 64 squares, indexed by square number
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(Bitboards.row(square), Bitboards.column(square));
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -17,6 +24,29 @@ public class ChessPosition {
         this.row = row;
         this.col = col;
     }
+
+    /**
+     * Gets the shared instance for a position. Positions on the board are
+     * interned, so this never allocates for them; off-board positions get a
+     * fresh instance.
+     *
+     * @param row the 1-based row
+     * @param col the 1-based column
+     * @return a ChessPosition for the given row and column
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[Bitboards.square(row, col)];
+    }
+
+    /**
+     * @return the interned position for a 0-63 square index
+     */
+    static ChessPosition of(int square) {
+        return SQUARES[square];
+    }
     public boolean isOnBoard() {
         return row >= 1 && row <= 8 && col >= 1 && col <= 8;
     }
@@ -46,6 +76,6 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return 31 * row + col;
     }
 }
@@ -0,0 +1,148 @@
+package chess;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes a position in a fixed {@value #ENCODED_SIZE} bytes
+ * <p>
+ * Layout, in ByteBuffer order:
+ * <pre>
+ *  8 bytes  occupancy, one bit per square (see {@link Bitboards})
+ * 16 bytes  one 4-bit piece code (ChessPiece.getIndex()) per occupied
+ *           square in square order, two per byte with the first in the
+ *           high nibble, padded with zeros
+ *  2 bytes  bit 0 black to move, bits 1-4 castling rights,
+ *           bits 5-8 en passant file + 1 or 0 for none
+ *  2 bytes  halfmove clock
+ *  2 bytes  fullmove number, so positions past move {@value #MAX_FULLMOVE_NUMBER}
+ *           can't be encoded
+ * </pre>
+ * The en passant row follows from the side to move. Reads and writes go
+ * straight through a ByteBuffer, so a position can be written to a socket
+ * or a mapped file without building anything in between.
+ */
+public final class CompactPosition {
+
+    public static final int ENCODED_SIZE = 30;
+    static final int MAX_FULLMOVE_NUMBER = 0xFFFF;
+    private static final int MAX_PIECES = 32;
+
+    private CompactPosition() {
+    }
+
+    /**
+     * Writes the board's position at the buffer's position and advances it
+     * by {@link #ENCODED_SIZE}
+     *
+     * @param board the position to write
+     * @param out   the buffer to write to
+     * @throws IllegalArgumentException if the board has more than 32 pieces
+     *                                  or its fullmove number is past {@value #MAX_FULLMOVE_NUMBER}
+     */
+    public static void write(ChessBoard board, ByteBuffer out) {
+        long occupied = board.occupied();
+        if (Long.bitCount(occupied) > MAX_PIECES) {
+            throw new IllegalArgumentException("Can't encode a board with more than " + MAX_PIECES + " pieces");
+        }
+        if (board.getFullmoveNumber() > MAX_FULLMOVE_NUMBER) {
+            throw new IllegalArgumentException("Can't encode a fullmove number past " + MAX_FULLMOVE_NUMBER);
+        }
+        out.putLong(occupied);
+
+        long high = 0;
+        long low = 0;
+        int nibble = 0;
+        long pieces = occupied;
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long code = board.getPiece(square).getIndex();
+            // nibbles 0-15 fill the first long from the top, 16-31 the second
+            if (nibble < 16) {
+                high |= code << (60 - nibble * 4);
+            } else {
+                low |= code << (60 - (nibble - 16) * 4);
+            }
+            nibble++;
+        }
+        out.putLong(high);
+        out.putLong(low);
+
+        int enPassant = board.getEnPassantSquare();
+        int flags = (board.getSideToMove() == ChessGame.TeamColor.BLACK ? 1 : 0)
+                | (board.getCastlingRights() << 1)
+                | ((enPassant == ChessBoard.NO_SQUARE ? 0 : Bitboards.column(enPassant)) << 5);
+        out.putShort((short) flags);
+        out.putShort((short) board.getHalfmoveClock());
+        out.putShort((short) board.getFullmoveNumber());
+    }
+
+    /**
+     * Clears the board and sets it up from {@link #ENCODED_SIZE} bytes read at
+     * the buffer's position, advancing it. The board has nothing to undo
+     * afterwards.
+     *
+     * @param in    the buffer to read from
+     * @param board the board to set up
+     * @throws IllegalArgumentException if the bytes don't describe a position
+     */
+    public static void read(ByteBuffer in, ChessBoard board) {
+        long occupied = in.getLong();
+        long high = in.getLong();
+        long low = in.getLong();
+        int flags = in.getShort() & 0xFFFF;
+        int halfmove = in.getShort() & 0xFFFF;
+        int fullmove = in.getShort() & 0xFFFF;
+        if (Long.bitCount(occupied) > MAX_PIECES) {
+            throw new IllegalArgumentException("Encoded board has more than " + MAX_PIECES + " pieces");
+        }
+        // check everything before touching the board, so a bad record leaves it as it was
+        for (int nibble = 0; nibble < Long.bitCount(occupied); nibble++) {
+            int code = pieceCode(high, low, nibble);
+            if (code >= 12) {
+                throw new IllegalArgumentException("Unknown piece code " + code);
+            }
+        }
+        int enPassantFile = (flags >>> 5) & 0xF;
+        if (enPassantFile > 8) {
+            throw new IllegalArgumentException("Bad en passant file " + enPassantFile);
+        }
+
+        board.clear();
+        int nibble = 0;
+        long pieces = occupied;
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            board.addPiece(ChessPosition.of(square), ChessPiece.of(pieceCode(high, low, nibble++)));
+        }
+
+        ChessGame.TeamColor sideToMove = (flags & 1) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        board.setSideToMove(sideToMove);
+        board.setCastlingRights((flags >>> 1) & 0xF);
+        if (enPassantFile != 0) {
+            int row = sideToMove == ChessGame.TeamColor.WHITE ? 6 : 3;
+            board.setEnPassantSquare(Bitboards.square(row, enPassantFile));
+        }
+        board.setHalfmoveClock(halfmove);
+        board.setFullmoveNumber(Math.max(fullmove, 1));
+    }
+
+    /**
+     * @return the 4-bit code of the nibble'th occupied square, counting up from a1
+     */
+    private static int pieceCode(long high, long low, int nibble) {
+        return nibble < 16
+                ? (int) (high >>> (60 - nibble * 4)) & 0xF
+                : (int) (low >>> (60 - (nibble - 16) * 4)) & 0xF;
+    }
+
+    /**
+     * @return the board's position as a new {@link #ENCODED_SIZE} byte array
+     */
+    public static byte[] toBytes(ChessBoard board) {
+        byte[] bytes = new byte[ENCODED_SIZE];
+        write(board, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+}
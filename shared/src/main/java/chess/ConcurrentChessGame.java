@@ -0,0 +1,101 @@
+package chess;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A chess game that many threads can read while another applies moves
+ * <p>
+ * The game is published as a sequence of immutable {@link GameState}s. A
+ * reader just loads the current state, so it never waits for a writer and
+ * never sees a half-made move. A writer works on a private ChessGame and
+ * then swaps in a new state, so it never waits for readers either. Writers
+ * are serialized with each other.
+ */
+public final class ConcurrentChessGame {
+
+    private final ChessGame game = new ChessGame();
+    // only touched while holding writeLock
+    private final LegalMoveTable table = new LegalMoveTable();
+    private final Object writeLock = new Object();
+    private final AtomicReference<GameState> state = new AtomicReference<>();
+
+    /**
+     * Starts a game from the standard starting position
+     */
+    public ConcurrentChessGame() {
+        state.set(new GameState(0, game, table));
+    }
+
+    /**
+     * Starts a game from a copy of another game's position. Later changes to
+     * the other game are not seen here.
+     *
+     * @param initial the game to copy
+     */
+    public ConcurrentChessGame(ChessGame initial) {
+        setGame(initial);
+    }
+
+    /**
+     * @return the latest published state. Every query on it describes the
+     * same position, even if moves are made meanwhile.
+     */
+    public GameState getState() {
+        return state.get();
+    }
+
+    /**
+     * Validates and makes a move, then publishes the new position
+     *
+     * @param move the move to make
+     * @return the state after the move
+     * @throws InvalidMoveException if the move is not legal in the current position
+     */
+    public GameState makeMove(ChessMove move) throws InvalidMoveException {
+        synchronized (writeLock) {
+            game.makeMove(move);
+            return publish();
+        }
+    }
+
+    /**
+     * Makes a move only if the game is still at the given version, for
+     * clients that chose their move from a state that may have gone stale
+     *
+     * @param move            the move to make
+     * @param expectedVersion the version of the state the move was chosen from
+     * @return the state after the move, or null if the game has moved on
+     * @throws InvalidMoveException if the move is not legal in the current position
+     */
+    public GameState makeMove(ChessMove move, long expectedVersion) throws InvalidMoveException {
+        synchronized (writeLock) {
+            if (state.get().getVersion() != expectedVersion) {
+                return null;
+            }
+            game.makeMove(move);
+            return publish();
+        }
+    }
+
+    /**
+     * Replaces the position with a copy of another game's
+     *
+     * @param other the game to copy
+     * @return the new state
+     */
+    public GameState setGame(ChessGame other) {
+        synchronized (writeLock) {
+            game.setTeamTurn(other.getTeamTurn());
+            game.setBoard(new ChessBoard(other.getBoard()));
+            return publish();
+        }
+    }
+
+    private GameState publish() {
+        GameState current = state.get();
+        long version = current == null ? 0 : current.getVersion() + 1;
+        GameState next = new GameState(version, game, table);
+        state.set(next);
+        return next;
+    }
+}
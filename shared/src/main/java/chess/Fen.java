@@ -0,0 +1,309 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation
+ * <p>
+ * A FEN string has six fields separated by spaces: the pieces row by row
+ * from row 8 down, the side to move, castling rights, the en passant target
+ * square, the halfmove clock and the fullmove number, for example
+ * {@code rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1}.
+ * Parsing walks the characters once with an index, and writing appends to a
+ * StringBuilder, so neither creates substrings or other garbage. The last
+ * two fields may be left off, in which case they default to 0 and 1.
+ */
+public final class Fen {
+
+    /**
+     * The standard starting position
+     */
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // piece index (ChessPiece.getIndex()) for each letter, or -1
+    private static final int[] PIECE_INDEX = new int[128];
+    // letter for each piece index
+    private static final char[] PIECE_CHARS = new char[12];
+
+    static {
+        Arrays.fill(PIECE_INDEX, -1);
+        String letters = "kqbnrp";
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            char black = letters.charAt(type.ordinal());
+            char white = Character.toUpperCase(black);
+            int whiteIndex = ChessPiece.of(ChessGame.TeamColor.WHITE, type).getIndex();
+            int blackIndex = ChessPiece.of(ChessGame.TeamColor.BLACK, type).getIndex();
+            PIECE_INDEX[white] = whiteIndex;
+            PIECE_INDEX[black] = blackIndex;
+            PIECE_CHARS[whiteIndex] = white;
+            PIECE_CHARS[blackIndex] = black;
+        }
+    }
+
+    private Fen() {
+    }
+
+    /**
+     * Clears the board and sets it up from a FEN string. The en passant square
+     * is only kept if a pawn could really have just made a double push past it
+     * and a pawn can capture onto it, the same as after
+     * {@link ChessBoard#makeMove(int)}. The whole string is checked before the
+     * board is touched, so invalid FEN leaves the board as it was.
+     *
+     * @param fen   the position to load
+     * @param board the board to load it onto
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static void load(CharSequence fen, ChessBoard board) {
+        int length = fen.length();
+        int piecesStart = skipSpaces(fen, 0);
+        int i = checkPieces(fen, piecesStart);
+
+        // side to move
+        i = skipSpaces(fen, i);
+        if (i >= length) {
+            throw invalid(fen, "missing side to move");
+        }
+        char sideChar = fen.charAt(i++);
+        ChessGame.TeamColor side;
+        if (sideChar == 'w') {
+            side = ChessGame.TeamColor.WHITE;
+        } else if (sideChar == 'b') {
+            side = ChessGame.TeamColor.BLACK;
+        } else {
+            throw invalid(fen, "side to move must be 'w' or 'b'");
+        }
+
+        // castling rights
+        i = skipSpaces(fen, i);
+        int rights = 0;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else {
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                rights |= switch (fen.charAt(i)) {
+                    case 'K' -> ChessBoard.WHITE_KINGSIDE;
+                    case 'Q' -> ChessBoard.WHITE_QUEENSIDE;
+                    case 'k' -> ChessBoard.BLACK_KINGSIDE;
+                    case 'q' -> ChessBoard.BLACK_QUEENSIDE;
+                    default -> throw invalid(fen, "unknown castling right '" + fen.charAt(i) + "'");
+                };
+            }
+        }
+
+        // en passant
+        i = skipSpaces(fen, i);
+        if (i >= length) {
+            throw invalid(fen, "missing en passant square");
+        }
+        int enPassant = ChessBoard.NO_SQUARE;
+        if (fen.charAt(i) == '-') {
+            i++;
+        } else {
+            if (i + 1 >= length) {
+                throw invalid(fen, "en passant square is cut off");
+            }
+            int file = fen.charAt(i) - 'a' + 1;
+            int rank = fen.charAt(i + 1) - '0';
+            int expectedRank = side == ChessGame.TeamColor.WHITE ? 6 : 3;
+            if (file < 1 || file > 8 || rank != expectedRank) {
+                throw invalid(fen, "bad en passant square");
+            }
+            i += 2;
+            enPassant = Bitboards.square(rank, file);
+        }
+
+        // clocks, both optional
+        int halfmove = 0;
+        int fullmove = 1;
+        i = skipSpaces(fen, i);
+        if (i < length) {
+            int start = i;
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                halfmove = halfmove * 10 + digit(fen, i);
+            }
+            if (i - start > 5 || halfmove > ChessBoard.MAX_HALFMOVE_CLOCK) {
+                throw invalid(fen, "halfmove clock is too large");
+            }
+
+            i = skipSpaces(fen, i);
+            if (i < length) {
+                start = i;
+                fullmove = 0;
+                for (; i < length && fen.charAt(i) != ' '; i++) {
+                    fullmove = fullmove * 10 + digit(fen, i);
+                }
+                if (i - start > 6 || fullmove < 1) {
+                    throw invalid(fen, "bad fullmove number");
+                }
+            }
+        }
+        if (skipSpaces(fen, i) < length) {
+            throw invalid(fen, "unexpected text after the fullmove number");
+        }
+
+        board.clear();
+        placePieces(fen, piecesStart, board);
+        board.setSideToMove(side);
+        board.setCastlingRights(rights);
+        if (enPassant != ChessBoard.NO_SQUARE) {
+            setEnPassantIfCapturable(board, enPassant);
+        }
+        board.setHalfmoveClock(halfmove);
+        board.setFullmoveNumber(fullmove);
+    }
+
+    /**
+     * Appends the board's position as a FEN string
+     *
+     * @param board the board to describe
+     * @param out   where to append the FEN
+     * @return out, for chaining
+     */
+    public static StringBuilder append(ChessBoard board, StringBuilder out) {
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(Bitboards.square(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(PIECE_CHARS[piece.getIndex()]);
+            }
+            if (empty > 0) {
+                out.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                out.append('/');
+            }
+        }
+
+        out.append(board.getSideToMove() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+
+        int rights = board.getCastlingRights();
+        if (rights == 0) {
+            out.append('-');
+        } else {
+            if ((rights & ChessBoard.WHITE_KINGSIDE) != 0) out.append('K');
+            if ((rights & ChessBoard.WHITE_QUEENSIDE) != 0) out.append('Q');
+            if ((rights & ChessBoard.BLACK_KINGSIDE) != 0) out.append('k');
+            if ((rights & ChessBoard.BLACK_QUEENSIDE) != 0) out.append('q');
+        }
+
+        out.append(' ');
+        int enPassant = board.getEnPassantSquare();
+        if (enPassant == ChessBoard.NO_SQUARE) {
+            out.append('-');
+        } else {
+            out.append((char) ('a' + Bitboards.column(enPassant) - 1))
+                    .append((char) ('0' + Bitboards.row(enPassant)));
+        }
+
+        return out.append(' ').append(board.getHalfmoveClock())
+                .append(' ').append(board.getFullmoveNumber());
+    }
+
+    /**
+     * @return the board's position as a FEN string
+     */
+    public static String toFen(ChessBoard board) {
+        return append(board, new StringBuilder(90)).toString();
+    }
+
+    // checks the piece field starting at i and returns the index just past it
+    private static int checkPieces(CharSequence fen, int i) {
+        int length = fen.length();
+        int row = 8;
+        int col = 1;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw invalid(fen, "row " + row + " does not have 8 squares");
+                }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                int index = c < 128 ? PIECE_INDEX[c] : -1;
+                if (index < 0) {
+                    throw invalid(fen, "unknown piece '" + c + "'");
+                }
+                if (col > 8) {
+                    throw invalid(fen, "row " + row + " has more than 8 squares");
+                }
+                col++;
+            }
+            if (col > 9) {
+                throw invalid(fen, "row " + row + " has more than 8 squares");
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw invalid(fen, "expected 8 rows of 8 squares");
+        }
+        return i;
+    }
+
+    // places the pieces of a field that checkPieces has already accepted
+    private static void placePieces(CharSequence fen, int i, ChessBoard board) {
+        int row = 8;
+        int col = 1;
+        for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                board.addPiece(ChessPosition.of(row, col), ChessPiece.of(PIECE_INDEX[c]));
+                col++;
+            }
+        }
+    }
+
+    private static void setEnPassantIfCapturable(ChessBoard board, int target) {
+        ChessGame.TeamColor mover = board.getSideToMove();
+        ChessGame.TeamColor pusher = MoveGenerator.opponent(mover);
+        // the pawn that just pushed stands one row beyond the target, and the
+        // target and the square it started from must both be empty
+        int toPawn = mover == ChessGame.TeamColor.WHITE ? -8 : 8;
+        long pushed = 1L << (target + toPawn);
+        long passed = 1L << target | 1L << (target - toPawn);
+        if ((board.pieces(pusher, ChessPiece.PieceType.PAWN) & pushed) == 0
+                || (board.occupied() & passed) != 0) {
+            return;
+        }
+        // the capturing pawns stand where an enemy pawn on the target would attack
+        long capturers = Bitboards.pawnAttacks(target, pusher)
+                & board.pieces(mover, ChessPiece.PieceType.PAWN);
+        if (capturers != 0) {
+            board.setEnPassantSquare(target);
+        }
+    }
+
+    private static int skipSpaces(CharSequence fen, int i) {
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int digit(CharSequence fen, int i) {
+        char c = fen.charAt(i);
+        if (c < '0' || c > '9') {
+            throw invalid(fen, "expected a number");
+        }
+        return c - '0';
+    }
+
+    private static IllegalArgumentException invalid(CharSequence fen, String reason) {
+        return new IllegalArgumentException("Invalid FEN \"" + fen + "\": " + reason);
+    }
+}
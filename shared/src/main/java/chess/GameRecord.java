@@ -0,0 +1,440 @@
+package chess;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Stores a whole game in a few bytes per move
+ * <p>
+ * Each move is stored as its index in the position's legal moves. Plain
+ * records sort the moves by their {@link Move} encoding and store one byte
+ * per index, since there are never more than 218 legal moves. Range-coded
+ * records sort the moves from most to least likely instead, with captures of
+ * valuable pieces first and quiet moves that improve a piece after them, and
+ * code each index against a fixed frequency table that gives low indexes a
+ * bigger share. Real games mostly play one of the first few moves, so this
+ * averages well under a byte per move and beats treating every legal move as
+ * equally likely. Decoding replays the moves through the move generator, so
+ * the rebuilt game has its full move history.
+ * <p>
+ * The move order and the frequency table are part of the format: changing
+ * either one makes existing range-coded records decode to different games.
+ * <p>
+ * Layout:
+ * <pre>
+ *  1 byte   flags: bit 0 range coded, bit 1 custom start position
+ * 30 bytes  the start position as a {@link CompactPosition}, only with bit 1
+ *  varint   number of moves, 7 bits per byte, low bits first
+ *  ...      one byte per move index, or the range-coded indexes
+ * </pre>
+ */
+public final class GameRecord {
+
+    private static final int RANGE_CODED = 1;
+    private static final int CUSTOM_START = 2;
+
+    // indexed by PieceType ordinal, for ranking captures; the king never appears as a victim
+    private static final int[] PIECE_VALUES = {20, 9, 3, 3, 5, 1};
+    // CUMULATIVE_FREQUENCY[i] is the total frequency of the indexes below i.
+    // Index i gets a share of about 1 / (i + 4), scaled so the total over
+    // every index stays under 2^16 and the coder never runs short of precision.
+    private static final int[] CUMULATIVE_FREQUENCY = new int[MoveList.DEFAULT_CAPACITY + 1];
+
+    static {
+        for (int index = 0; index < MoveList.DEFAULT_CAPACITY; index++) {
+            CUMULATIVE_FREQUENCY[index + 1] = CUMULATIVE_FREQUENCY[index] + 12_000 / (index + 4);
+        }
+    }
+
+    private GameRecord() {
+    }
+
+    /**
+     * Encodes every move made in the game since its board was set up
+     *
+     * @param game       the game to encode, which is left as it was
+     * @param rangeCoded true to range code the move indexes, which is smaller
+     *                   but slower than storing a byte per move
+     * @return the encoded game
+     * @throws IllegalArgumentException if the start position can't be stored,
+     *                                  see {@link CompactPosition}
+     */
+    public static byte[] encode(ChessGame game, boolean rangeCoded) {
+        ChessBoard board = game.getBoard();
+        int plies = board.getUndoCount();
+        int[] history = new int[plies];
+        for (int i = 0; i < plies; i++) {
+            history[i] = board.getUndoMove(i);
+        }
+        // take everything back to find the start position, then replay
+        for (int i = 0; i < plies; i++) {
+            board.unmakeMove();
+        }
+        ByteWriter out = new ByteWriter();
+        try {
+            boolean customStart = !isStartPosition(board);
+            out.write((rangeCoded ? RANGE_CODED : 0) | (customStart ? CUSTOM_START : 0));
+            if (customStart) {
+                out.write(CompactPosition.toBytes(board));
+            }
+            out.writeVarInt(plies);
+
+            RangeEncoder encoder = rangeCoded ? new RangeEncoder(out) : null;
+            MoveOrder order = new MoveOrder(rangeCoded);
+            for (int ply = 0; ply < plies; ply++) {
+                int count = order.update(board);
+                int index = order.indexOf(history[ply]);
+                if (encoder != null) {
+                    encoder.encode(CUMULATIVE_FREQUENCY, index, count);
+                } else {
+                    out.write(index);
+                }
+                board.makeMove(history[ply]);
+            }
+            if (encoder != null) {
+                encoder.finish();
+            }
+        } finally {
+            // leave the board as it was even if encoding failed part way
+            while (board.getUndoCount() < plies) {
+                board.makeMove(history[board.getUndoCount()]);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Rebuilds a game from {@link #encode}'s output by replaying its moves.
+     * The range decoder reads zeros past the end of the record, so a cut-off
+     * range-coded record may decode to a different game instead of failing.
+     *
+     * @param record the encoded game
+     * @return a game at the final position, with every move available to unmake
+     * @throws IllegalArgumentException if the record is damaged
+     */
+    public static ChessGame decode(byte[] record) {
+        ByteBuffer in = ByteBuffer.wrap(record);
+        try {
+            int flags = in.get();
+            ChessGame game = new ChessGame();
+            ChessBoard board = game.getBoard();
+            if ((flags & CUSTOM_START) != 0) {
+                CompactPosition.read(in, board);
+            }
+            int plies = readVarInt(in);
+
+            boolean rangeCoded = (flags & RANGE_CODED) != 0;
+            RangeDecoder decoder = rangeCoded ? new RangeDecoder(in) : null;
+            MoveOrder order = new MoveOrder(rangeCoded);
+            for (int ply = 0; ply < plies; ply++) {
+                int count = order.update(board);
+                if (count == 0) {
+                    throw new IllegalArgumentException("Move " + (ply + 1) + " is recorded after the game ended");
+                }
+                int index = decoder != null ? decoder.decode(CUMULATIVE_FREQUENCY, count) : in.get() & 0xFF;
+                if (index >= count) {
+                    throw new IllegalArgumentException("Move " + (ply + 1) + " has index " + index
+                            + " but there are only " + count + " legal moves");
+                }
+                board.makeMove(order.get(index));
+            }
+            return game;
+        } catch (java.nio.BufferUnderflowException e) {
+            throw new IllegalArgumentException("Game record is cut off", e);
+        }
+    }
+
+    private static boolean isStartPosition(ChessBoard board) {
+        ChessBoard start = new ChessBoard();
+        start.resetBoard();
+        return board.zobristKey() == start.zobristKey() && board.equals(start)
+                && board.getHalfmoveClock() == 0 && board.getFullmoveNumber() == 1;
+    }
+
+    /**
+     * Scores how likely a move is to be played, higher first. Queen
+     * promotions come first, then captures by most valuable victim and least
+     * valuable attacker, then castling. Captures that give up a bigger piece
+     * on a defended square drop below castling. Quiet moves follow, ranked by
+     * how much closer to the centre they bring the piece, with a nudge towards
+     * developing minor pieces and away from squares enemy pawns attack.
+     * Underpromotions come last.
+     */
+    private static int likelihood(ChessBoard board, int move, long enemyPawnAttacks) {
+        ChessGame.TeamColor color = board.getSideToMove();
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece.PieceType type = board.getPiece(from).getPieceType();
+        int value = PIECE_VALUES[type.ordinal()];
+        if (Move.isPromotion(move)) {
+            return Move.promotionPiece(move) == ChessPiece.PieceType.QUEEN ? 3000 : -3000;
+        }
+        if (Move.isCapture(move)) {
+            ChessPiece victim = board.getPiece(to);
+            int victimValue = PIECE_VALUES[victim == null
+                    ? ChessPiece.PieceType.PAWN.ordinal() : victim.getPieceType().ordinal()];
+            int score = 2000 + 10 * victimValue - value;
+            if (value > victimValue && board.isSquareAttacked(to, MoveGenerator.opponent(color))) {
+                score -= 1500;
+            }
+            return score;
+        }
+        if (Move.kind(move) == Move.CASTLING) {
+            return 1500;
+        }
+        int score = centrality(to) - centrality(from);
+        if (type == ChessPiece.PieceType.PAWN) {
+            score += 3;
+        } else if (Bitboards.isSet(enemyPawnAttacks, to)) {
+            score -= 40;
+        }
+        boolean minor = type == ChessPiece.PieceType.BISHOP || type == ChessPiece.PieceType.KNIGHT;
+        int row = Bitboards.row(from);
+        if (minor && (row == 1 || row == 8)) {
+            score += 10;
+        }
+        return score;
+    }
+
+    /**
+     * @return minus twice the rows plus columns between the square and the
+     * middle of the board, so the four centre squares score -2
+     */
+    private static int centrality(int square) {
+        return -(Math.abs(2 * Bitboards.row(square) - 9) + Math.abs(2 * Bitboards.column(square) - 9));
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Move count is too long");
+    }
+
+    /**
+     * The legal moves of a position in the order their indexes refer to:
+     * ascending {@link Move} encoding, or most likely first for range coding
+     */
+    private static final class MoveOrder {
+        private final boolean likelyFirst;
+        private final MoveList moves = new MoveList();
+        // likelihood in the high half, so ties fall back to the move's encoding
+        private final long[] keys = new long[MoveList.DEFAULT_CAPACITY];
+        private final int[] ordered = new int[MoveList.DEFAULT_CAPACITY];
+        private int count;
+
+        MoveOrder(boolean likelyFirst) {
+            this.likelyFirst = likelyFirst;
+        }
+
+        /**
+         * Orders the legal moves for the side to move
+         *
+         * @return how many there are
+         */
+        int update(ChessBoard board) {
+            ChessGame.TeamColor color = board.getSideToMove();
+            moves.clear();
+            count = MoveGenerator.generateLegalMoves(board, color, moves);
+            if (!likelyFirst) {
+                for (int i = 0; i < count; i++) {
+                    ordered[i] = moves.get(i);
+                }
+                Arrays.sort(ordered, 0, count);
+                return count;
+            }
+            ChessGame.TeamColor opponent = MoveGenerator.opponent(color);
+            long enemyPawns = board.pieces(opponent, ChessPiece.PieceType.PAWN);
+            long enemyPawnAttacks = Bitboards.pawnAttackSet(enemyPawns, opponent);
+            for (int i = 0; i < count; i++) {
+                int move = moves.get(i);
+                keys[i] = ((long) -likelihood(board, move, enemyPawnAttacks) << 32) | move;
+            }
+            Arrays.sort(keys, 0, count);
+            for (int i = 0; i < count; i++) {
+                ordered[i] = (int) keys[i];
+            }
+            return count;
+        }
+
+        int get(int index) {
+            return ordered[index];
+        }
+
+        int indexOf(int move) {
+            for (int i = 0; i < count; i++) {
+                if (ordered[i] == move) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("Move " + Move.toChessMove(move) + " in the history is not legal");
+        }
+    }
+
+    /**
+     * A growable byte array, to avoid going through an OutputStream
+     */
+    private static final class ByteWriter {
+        private byte[] bytes = new byte[64];
+        private int size;
+
+        void write(int b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = (byte) b;
+        }
+
+        void write(byte[] more) {
+            for (byte b : more) {
+                write(b);
+            }
+        }
+
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Drops zero bytes from the end, but keeps the first start bytes
+         */
+        void trimZeros(int start) {
+            while (size > start && bytes[size - 1] == 0) {
+                size--;
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    /**
+     * An LZMA-style byte-wise range coder with carry propagation. Each symbol
+     * narrows the range to its slice of a cumulative frequency table.
+     * <p>
+     * Two bytes are saved on every record. LZMA's first output byte is always
+     * zero, so it is never written. And the decoder reads zeros once the
+     * record runs out, so the zero bytes at the end of the flush are dropped.
+     */
+    private static final class RangeEncoder {
+        private static final long TOP = 1L << 24;
+
+        private final ByteWriter out;
+        private final int start;
+        private long low;
+        private long range = 0xFFFFFFFFL;
+        private int cache;
+        private long cacheSize = 1;
+        private boolean skipFirst = true;
+
+        RangeEncoder(ByteWriter out) {
+            this.out = out;
+            start = out.size();
+        }
+
+        /**
+         * @param cumulative cumulative[i] is the total frequency of the symbols below i
+         * @param symbol     the symbol to write
+         * @param count      how many symbols there are to choose from
+         */
+        void encode(int[] cumulative, int symbol, int count) {
+            range /= cumulative[count];
+            low += cumulative[symbol] * range;
+            range *= cumulative[symbol + 1] - cumulative[symbol];
+            while (range < TOP) {
+                range <<= 8;
+                shiftLow();
+            }
+        }
+
+        void finish() {
+            // any value in [low, low + range) decodes the same, and range is at
+            // least 2^24, so round low up to end in as many zero bytes as possible
+            for (int bits = 32; bits >= 24; bits -= 8) {
+                long rounded = (low + (1L << bits) - 1) & -(1L << bits);
+                if (rounded < low + range) {
+                    low = rounded;
+                    break;
+                }
+            }
+            for (int i = 0; i < 5; i++) {
+                shiftLow();
+            }
+            out.trimZeros(start);
+        }
+
+        private void shiftLow() {
+            if (low < 0xFF000000L || low > 0xFFFFFFFFL) {
+                int carry = (int) (low >>> 32);
+                int pending = cache;
+                do {
+                    if (skipFirst) {
+                        skipFirst = false;
+                    } else {
+                        out.write(pending + carry);
+                    }
+                    pending = 0xFF;
+                } while (--cacheSize != 0);
+                cache = (int) ((low >>> 24) & 0xFF);
+            }
+            cacheSize++;
+            low = (low & 0x00FFFFFFL) << 8;
+        }
+    }
+
+    private static final class RangeDecoder {
+        private static final long TOP = 1L << 24;
+
+        private final ByteBuffer in;
+        private long code;
+        private long range = 0xFFFFFFFFL;
+
+        RangeDecoder(ByteBuffer in) {
+            this.in = in;
+            for (int i = 0; i < 4; i++) {
+                code = (code << 8) | nextByte();
+            }
+        }
+
+        /**
+         * @param cumulative the same table the symbol was encoded with
+         * @param count      how many symbols there are to choose from
+         * @return the symbol
+         */
+        int decode(int[] cumulative, int count) {
+            range /= cumulative[count];
+            long value = code / range;
+            if (value >= cumulative[count]) {
+                throw new IllegalArgumentException("Range-coded moves are damaged");
+            }
+            int symbol = Arrays.binarySearch(cumulative, 0, count + 1, (int) value);
+            // a miss gives the insertion point, one past the symbol whose slice holds value
+            symbol = symbol >= 0 ? symbol : -symbol - 2;
+            code -= cumulative[symbol] * range;
+            range *= cumulative[symbol + 1] - cumulative[symbol];
+            while (range < TOP) {
+                range <<= 8;
+                code = ((code << 8) | nextByte()) & 0xFFFFFFFFL;
+            }
+            return symbol;
+        }
+
+        private int nextByte() {
+            return in.hasRemaining() ? in.get() & 0xFF : 0;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * One published version of a game held by {@link ConcurrentChessGame}
+ * <p>
+ * Everything a reader might ask about the position is worked out once by the
+ * writer when the state is built, including both teams' legal moves, so any
+ * number of threads can query it at the same time without locking and
+ * without regenerating anything. All reads from one state describe the same
+ * position.
+ */
+public final class GameState {
+
+    private final long version;
+    private final BoardSnapshot board;
+    // legal moves and start indices per TeamColor.ordinal(), laid out like LegalMoveTable
+    private final int[][] moves = new int[2][];
+    private final int[][] squareStarts = new int[2][];
+    private final boolean[] inCheck = new boolean[2];
+    private final boolean threefoldRepetition;
+    private final boolean fiftyMoveRule;
+
+    /**
+     * Builds the state for the game's current position. Only the writer calls
+     * this, while it has the game to itself.
+     */
+    GameState(long version, ChessGame game, LegalMoveTable table) {
+        this.version = version;
+        ChessBoard board = game.getBoard();
+        this.board = board.snapshot();
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            table.update(board, color);
+            moves[color.ordinal()] = table.copyMoves();
+            squareStarts[color.ordinal()] = table.copySquareStarts();
+            inCheck[color.ordinal()] = game.isInCheck(color);
+        }
+        this.threefoldRepetition = game.isThreefoldRepetition();
+        this.fiftyMoveRule = game.isFiftyMoveRule();
+    }
+
+    /**
+     * @return how many changes the game had seen when this state was
+     * published. Later states always have higher versions.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the position this state describes
+     */
+    public BoardSnapshot getBoard() {
+        return board;
+    }
+
+    public ChessGame.TeamColor getTeamTurn() {
+        return board.getSideToMove();
+    }
+
+    /**
+     * Same as {@link ChessGame#validMoves}, for the position in this state
+     */
+    public Collection<ChessMove> validMoves(ChessPosition startPosition) {
+        if (!startPosition.isOnBoard()) {
+            return null;
+        }
+        ChessPiece piece = board.getPiece(startPosition);
+        if (piece == null) {
+            return null;
+        }
+        int color = piece.getTeamColor().ordinal();
+        int square = Bitboards.square(startPosition);
+        int start = squareStarts[color][square];
+        int end = squareStarts[color][square + 1];
+        ArrayList<ChessMove> valid = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            valid.add(Move.toChessMove(moves[color][i]));
+        }
+        return valid;
+    }
+
+    /**
+     * @return the number of legal moves the team has in this position
+     */
+    public int countValidMoves(ChessGame.TeamColor teamColor) {
+        return moves[teamColor.ordinal()].length;
+    }
+
+    public boolean isInCheck(ChessGame.TeamColor teamColor) {
+        return inCheck[teamColor.ordinal()];
+    }
+
+    public boolean isInCheckmate(ChessGame.TeamColor teamColor) {
+        return isInCheck(teamColor) && countValidMoves(teamColor) == 0;
+    }
+
+    public boolean isInStalemate(ChessGame.TeamColor teamColor) {
+        return !isInCheck(teamColor) && countValidMoves(teamColor) == 0;
+    }
+
+    public boolean isThreefoldRepetition() {
+        return threefoldRepetition;
+    }
+
+    public boolean isFiftyMoveRule() {
+        return fiftyMoveRule;
+    }
+}
@@ -0,0 +1,127 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Every legal move for one side in one position, grouped by the square each
+ * move starts from
+ * <p>
+ * The table remembers which board, Zobrist key and color it was built for,
+ * so {@link #update} is just a few comparisons while the position stays the
+ * same. That also keeps it correct when a caller changes the board directly
+ * instead of going through ChessGame.
+ */
+final class LegalMoveTable {
+
+    private final MoveList generated = new MoveList();
+    // the generated moves sorted by start square; moves from square s are
+    // at indices squareStart[s] up to squareStart[s + 1]
+    private int[] bySquare = new int[MoveList.DEFAULT_CAPACITY];
+    private final int[] squareStart = new int[65];
+    // where the counting sort puts the next move from each square
+    private final int[] cursor = new int[64];
+
+    private ChessBoard board;
+    private long key;
+    private ChessGame.TeamColor color;
+    private boolean valid;
+
+    /**
+     * Makes sure the table holds the legal moves for the color on the board,
+     * generating them only if the position has changed since the last call
+     */
+    void update(ChessBoard board, ChessGame.TeamColor color) {
+        if (isCurrent(board, color)) {
+            return;
+        }
+        generated.clear();
+        MoveGenerator.generateLegalMoves(board, color, generated);
+
+        // counting sort by start square
+        int size = generated.size();
+        if (size > bySquare.length) {
+            bySquare = new int[size];
+        }
+        Arrays.fill(squareStart, 0);
+        for (int i = 0; i < size; i++) {
+            squareStart[Move.from(generated.get(i)) + 1]++;
+        }
+        for (int square = 0; square < 64; square++) {
+            squareStart[square + 1] += squareStart[square];
+        }
+        System.arraycopy(squareStart, 0, cursor, 0, 64);
+        for (int i = 0; i < size; i++) {
+            int move = generated.get(i);
+            bySquare[cursor[Move.from(move)]++] = move;
+        }
+
+        this.board = board;
+        this.key = board.zobristKey();
+        this.color = color;
+        this.valid = true;
+    }
+
+    /**
+     * @return true if the table already holds the moves for the color on the
+     * board as it is now
+     */
+    boolean isCurrent(ChessBoard board, ChessGame.TeamColor color) {
+        return valid && this.board == board && key == board.zobristKey() && this.color == color;
+    }
+
+    /**
+     * Forgets the current moves so the next update regenerates them
+     */
+    void invalidate() {
+        valid = false;
+        board = null;
+    }
+
+    int size() {
+        return generated.size();
+    }
+
+    /**
+     * @return the move at an index in start square order
+     */
+    int get(int index) {
+        return bySquare[index];
+    }
+
+    /**
+     * @return the index of the first move starting on the square
+     */
+    int start(int square) {
+        return squareStart[square];
+    }
+
+    /**
+     * @return one past the index of the last move starting on the square
+     */
+    int end(int square) {
+        return squareStart[square + 1];
+    }
+
+    /**
+     * @return the moves in the order they were generated, which the next
+     * update overwrites
+     */
+    MoveList moves() {
+        return generated;
+    }
+
+    /**
+     * @return a copy of the moves in start square order, which stays valid
+     * after the table is updated again
+     */
+    int[] copyMoves() {
+        return Arrays.copyOf(bySquare, size());
+    }
+
+    /**
+     * @return a copy of the start indices, laid out like {@link #start}
+     */
+    int[] copySquareStarts() {
+        return squareStart.clone();
+    }
+}
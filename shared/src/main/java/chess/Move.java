@@ -0,0 +1,103 @@
+package chess;
+
+/**
+ * Packs a move into a single int so move generation and search can work
+ * without creating ChessMove objects
+ * <p>
+ * Layout, from the lowest bit up:
+ * <pre>
+ *  bits  0-5   start square (0-63, see {@link Bitboards})
+ *  bits  6-11  end square
+ *  bits 12-14  promotion piece, 0 for none or PieceType ordinal + 1
+ *  bits 15-16  kind: NORMAL, DOUBLE_PAWN_PUSH, EN_PASSANT or CASTLING
+ *  bit  17     set if the move captures a piece
+ * </pre>
+ * Conversion to and from ChessMove only happens at the public API boundary.
+ */
+public final class Move {
+
+    public static final int NORMAL = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int EN_PASSANT = 2;
+    public static final int CASTLING = 3;
+
+    /**
+     * Stands in for "no move", which no encoded move can be equal to
+     */
+    public static final int NONE = -1;
+
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int KIND_SHIFT = 15;
+    private static final int CAPTURE_FLAG = 1 << 17;
+
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    /**
+     * @return a plain move with no promotion, special kind or capture
+     */
+    public static int of(int from, int to) {
+        return from | (to << TO_SHIFT);
+    }
+
+    public static int of(int from, int to, int kind, boolean capture) {
+        return from | (to << TO_SHIFT) | (kind << KIND_SHIFT) | (capture ? CAPTURE_FLAG : 0);
+    }
+
+    public static int promotion(int from, int to, ChessPiece.PieceType promotion, boolean capture) {
+        return from | (to << TO_SHIFT) | ((promotion.ordinal() + 1) << PROMOTION_SHIFT)
+                | (capture ? CAPTURE_FLAG : 0);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & 0x3F;
+    }
+
+    /**
+     * @return the promotion piece, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotionPiece(int move) {
+        int code = (move >>> PROMOTION_SHIFT) & 0x7;
+        return code == 0 ? null : PIECE_TYPES[code - 1];
+    }
+
+    public static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & 0x7) != 0;
+    }
+
+    public static int kind(int move) {
+        return (move >>> KIND_SHIFT) & 0x3;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE_FLAG) != 0;
+    }
+
+    /**
+     * @return a ChessMove equivalent to the encoded move
+     */
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotionPiece(move));
+    }
+
+    /**
+     * Checks whether an encoded move has the same start, end and promotion as
+     * a ChessMove. The kind and capture bits are ignored since a ChessMove does
+     * not carry them.
+     */
+    public static boolean matches(int move, ChessMove chessMove) {
+        ChessPosition start = chessMove.getStartPosition();
+        ChessPosition end = chessMove.getEndPosition();
+        return start.isOnBoard() && end.isOnBoard()
+                && from(move) == Bitboards.square(start)
+                && to(move) == Bitboards.square(end)
+                && promotionPiece(move) == chessMove.getPromotionPiece();
+    }
+}
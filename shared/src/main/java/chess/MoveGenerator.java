@@ -0,0 +1,427 @@
+package chess;
+
+/**
+ * Generates moves straight into a caller supplied {@link MoveList}
+ * <p>
+ * Nothing here allocates, so a thread that keeps reusing the same MoveList
+ * can generate moves indefinitely without creating garbage.
+ * <p>
+ * The generateMoves methods are pseudo-legal: moves that leave the mover's
+ * king in check are still included, and castling moves are only checked for
+ * rights and empty squares. The generateLegalMoves methods work out the
+ * checking and pinned pieces once up front and only emit legal moves.
+ */
+public final class MoveGenerator {
+
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Appends the moves for every piece of one team
+     *
+     * @param board the board to generate moves on
+     * @param color the team to generate moves for
+     * @param moves the buffer to append the moves to
+     * @return the number of moves appended
+     */
+    public static int generateMoves(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        int startSize = moves.size();
+        for (ChessPiece.PieceType type : PIECE_TYPES) {
+            long pieces = board.pieces(color, type);
+            while (pieces != 0) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                generatePieceMoves(board, square, color, type, moves);
+            }
+        }
+        castlingMoves(board, color, moves);
+        enPassantMoves(board, color, ~0L, moves);
+        return moves.size() - startSize;
+    }
+
+    /**
+     * Appends the moves for the piece on one square, including castling and en
+     * passant
+     *
+     * @param board  the board to generate moves on
+     * @param square the square index of the piece, see {@link Bitboards}
+     * @param moves  the buffer to append the moves to
+     * @return the number of moves appended, which is 0 for an empty square
+     */
+    public static int generateMoves(ChessBoard board, int square, MoveList moves) {
+        ChessPiece piece = board.getPiece(square);
+        if (piece == null) {
+            return 0;
+        }
+        int startSize = moves.size();
+        generatePieceMoves(board, square, piece.getTeamColor(), piece.getPieceType(), moves);
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            castlingMoves(board, piece.getTeamColor(), moves);
+        } else if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            enPassantMoves(board, piece.getTeamColor(), Bitboards.bit(square), moves);
+        }
+        return moves.size() - startSize;
+    }
+
+    /**
+     * Appends every legal move for one team
+     *
+     * @param board the board to generate moves on
+     * @param color the team to generate moves for
+     * @param moves the buffer to append the moves to
+     * @return the number of moves appended
+     */
+    public static int generateLegalMoves(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        return generateLegalMoves(board, color, ~0L, ~0L, moves);
+    }
+
+    /**
+     * Appends the legal moves for the piece on one square
+     *
+     * @param board  the board to generate moves on
+     * @param square the square index of the piece, see {@link Bitboards}
+     * @param moves  the buffer to append the moves to
+     * @return the number of moves appended, which is 0 for an empty square
+     */
+    public static int generateLegalMoves(ChessBoard board, int square, MoveList moves) {
+        ChessPiece piece = board.getPiece(square);
+        if (piece == null) {
+            return 0;
+        }
+        return generateLegalMoves(board, piece.getTeamColor(), Bitboards.bit(square), ~0L, moves);
+    }
+
+    /**
+     * Checks whether a team has any legal move, stopping as soon as one piece
+     * type turns out to have one. The king is tried first since it is the
+     * piece most likely to have a way out of check.
+     *
+     * @param board   the board to look at
+     * @param color   the team to look for moves for
+     * @param scratch a buffer to generate into, which is cleared first
+     * @return true if the team has at least one legal move
+     */
+    public static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor color, MoveList scratch) {
+        for (ChessPiece.PieceType type : PIECE_TYPES) {
+            long pieces = board.pieces(color, type);
+            if (pieces == 0) {
+                continue;
+            }
+            scratch.clear();
+            if (generateLegalMoves(board, color, pieces, ~0L, scratch) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends the legal moves for the pieces of one team standing on fromMask
+     * that end on a square in targetMask. En passant counts as landing on the
+     * captured pawn's square, so it is kept with captures and dropped from
+     * quiet moves.
+     */
+    static int generateLegalMoves(ChessBoard board, ChessGame.TeamColor color, long fromMask, long targetMask,
+                                  MoveList moves) {
+        int startSize = moves.size();
+        ChessGame.TeamColor them = opponent(color);
+        int kingSquare = board.getKingSquare(color);
+        if (kingSquare == ChessBoard.NO_SQUARE) {
+            // with no king to protect every pseudo-legal move is legal
+            for (ChessPiece.PieceType type : PIECE_TYPES) {
+                long pieces = board.pieces(color, type) & fromMask;
+                while (pieces != 0) {
+                    int square = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                    generatePieceMoves(board, square, color, type, targetMask, moves);
+                }
+            }
+            enPassantMoves(board, color, fromMask, targetMask, moves);
+            return moves.size() - startSize;
+        }
+
+        long king = Bitboards.bit(kingSquare);
+        long occupied = board.occupied();
+        long checkers = board.attackersOf(kingSquare, occupied, them);
+
+        if ((fromMask & king) != 0) {
+            // the king may not step onto an attacked square. It is taken off the
+            // board first so it can't hide behind itself from a slider.
+            long targets = Bitboards.kingAttacks(kingSquare) & ~board.occupancy(color) & targetMask;
+            long opponents = board.occupancy(them);
+            long withoutKing = occupied ^ king;
+            while (targets != 0) {
+                int target = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                if (board.attackersOf(target, withoutKing, them) == 0) {
+                    moves.add(Move.of(kingSquare, target, Move.NORMAL, Bitboards.isSet(opponents, target)));
+                }
+            }
+            if (checkers == 0) {
+                legalCastlingMoves(board, color, targetMask, moves);
+            }
+        }
+
+        if (Long.bitCount(checkers) > 1) {
+            // in double check only the king can move
+            return moves.size() - startSize;
+        }
+        // in single check a move must capture the checker or block its line
+        long evasionMask = targetMask;
+        if (checkers != 0) {
+            evasionMask &= checkers | SlidingAttacks.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+        }
+        long pinned = pinnedPieces(board, kingSquare, color, occupied);
+
+        for (ChessPiece.PieceType type : PIECE_TYPES) {
+            if (type == ChessPiece.PieceType.KING) {
+                continue;
+            }
+            long pieces = board.pieces(color, type) & fromMask;
+            while (pieces != 0) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                long pieceTargets = evasionMask;
+                if (Bitboards.isSet(pinned, square)) {
+                    // a pinned piece can only slide along the pin
+                    pieceTargets &= SlidingAttacks.line(kingSquare, square);
+                }
+                generatePieceMoves(board, square, color, type, pieceTargets, moves);
+            }
+        }
+        legalEnPassantMoves(board, color, kingSquare, fromMask, targetMask, moves);
+        return moves.size() - startSize;
+    }
+
+    /**
+     * @return the pieces of the given color that are the only thing standing
+     * between their king and an enemy slider
+     */
+    private static long pinnedPieces(ChessBoard board, int kingSquare, ChessGame.TeamColor color, long occupied) {
+        ChessGame.TeamColor them = opponent(color);
+        long queens = board.pieces(them, ChessPiece.PieceType.QUEEN);
+        long snipers = (SlidingAttacks.rookAttacks(kingSquare, 0)
+                & (board.pieces(them, ChessPiece.PieceType.ROOK) | queens))
+                | (SlidingAttacks.bishopAttacks(kingSquare, 0)
+                & (board.pieces(them, ChessPiece.PieceType.BISHOP) | queens));
+        long own = board.occupancy(color);
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = SlidingAttacks.between(kingSquare, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+
+    private static void legalCastlingMoves(ChessBoard board, ChessGame.TeamColor color, long targetMask,
+                                           MoveList moves) {
+        int firstCastle = moves.size();
+        castlingMoves(board, color, moves);
+        int kept = firstCastle;
+        ChessGame.TeamColor them = opponent(color);
+        for (int i = firstCastle; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.from(move);
+            int to = Move.to(move);
+            // the king may not pass through or land on an attacked square
+            if (Bitboards.isSet(targetMask, to)
+                    && !board.isSquareAttacked((from + to) / 2, them) && !board.isSquareAttacked(to, them)) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    /**
+     * Adds the en passant captures that don't expose the king. The capture
+     * takes two pawns off the same row at once, so the check is done on the
+     * occupancy after the capture rather than with the pin mask.
+     */
+    private static void legalEnPassantMoves(ChessBoard board, ChessGame.TeamColor color, int kingSquare,
+                                            long fromMask, long targetMask, MoveList moves) {
+        int target = board.getEnPassantSquare();
+        if (target == ChessBoard.NO_SQUARE || color != board.getSideToMove()) {
+            return;
+        }
+        ChessGame.TeamColor them = opponent(color);
+        int capturedSquare = color == ChessGame.TeamColor.WHITE ? target - 8 : target + 8;
+        if (!Bitboards.isSet(targetMask, capturedSquare)) {
+            return;
+        }
+        long capturedBit = Bitboards.bit(capturedSquare);
+        long attackers = Bitboards.pawnAttacks(target, them)
+                & board.pieces(color, ChessPiece.PieceType.PAWN) & fromMask;
+        while (attackers != 0) {
+            int from = Long.numberOfTrailingZeros(attackers);
+            attackers &= attackers - 1;
+            long occupiedAfter = (board.occupied() ^ Bitboards.bit(from) ^ capturedBit) | Bitboards.bit(target);
+            if ((board.attackersOf(kingSquare, occupiedAfter, them) & ~capturedBit) == 0) {
+                moves.add(Move.of(from, target, Move.EN_PASSANT, true));
+            }
+        }
+    }
+
+    /**
+     * Appends the moves a piece of the given color and type could make from a
+     * square, whether or not that piece is actually on the board there
+     *
+     * @return the number of moves appended
+     */
+    static int generatePieceMoves(ChessBoard board, int square, ChessGame.TeamColor color,
+                                  ChessPiece.PieceType type, MoveList moves) {
+        return generatePieceMoves(board, square, color, type, ~0L, moves);
+    }
+
+    /**
+     * Same as above, but only keeps moves that end on a square in targetMask
+     */
+    private static int generatePieceMoves(ChessBoard board, int square, ChessGame.TeamColor color,
+                                          ChessPiece.PieceType type, long targetMask, MoveList moves) {
+        int startSize = moves.size();
+        long occupied = board.occupied();
+        switch (type) {
+            case KING -> addMoves(board, square, color, Bitboards.kingAttacks(square) & targetMask, moves);
+            case QUEEN -> addMoves(board, square, color,
+                    SlidingAttacks.queenAttacks(square, occupied) & targetMask, moves);
+            case BISHOP -> addMoves(board, square, color,
+                    SlidingAttacks.bishopAttacks(square, occupied) & targetMask, moves);
+            case KNIGHT -> addMoves(board, square, color, Bitboards.knightAttacks(square) & targetMask, moves);
+            case ROOK -> addMoves(board, square, color,
+                    SlidingAttacks.rookAttacks(square, occupied) & targetMask, moves);
+            case PAWN -> pawnMoves(board, square, color, targetMask, moves);
+        }
+        return moves.size() - startSize;
+    }
+
+    /**
+     * Adds a move to every square in the attack set that isn't held by the
+     * moving team
+     */
+    private static void addMoves(ChessBoard board, int square, ChessGame.TeamColor color, long attacks,
+                                 MoveList moves) {
+        long targets = attacks & ~board.occupancy(color);
+        long opponents = board.occupancy(opponent(color));
+        while (targets != 0) {
+            int destination = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(Move.of(square, destination, Move.NORMAL, Bitboards.isSet(opponents, destination)));
+        }
+    }
+
+    private static void pawnMoves(ChessBoard board, int square, ChessGame.TeamColor color, long targetMask,
+                                  MoveList moves) {
+        //case1: move forward a square
+        //case2: if in og pos, move forward 2 sqs
+        //case3: if opp is frontLeft or frontRight, move up and over 1sq (left & right),
+        //       which is just the pawn attack table masked with the opponent's pieces
+        //og pos is different for team colors
+        int ahead = 8;
+        int startRow = 2;
+        if (color == ChessGame.TeamColor.BLACK) {
+            ahead = -8;
+            startRow = 7;
+        }
+        long occupied = board.occupied();
+        long captures = Bitboards.pawnAttacks(square, color) & board.occupancy(opponent(color)) & targetMask;
+        while (captures != 0) {
+            int destination = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            addPawnMove(square, destination, true, moves);
+        }
+
+        int aheadOne = square + ahead;
+        if (aheadOne < 0 || aheadOne >= 64) {
+            return;
+        }
+        if (!Bitboards.isSet(occupied, aheadOne)) {
+            if (Bitboards.isSet(targetMask, aheadOne)) {
+                addPawnMove(square, aheadOne, false, moves);
+            }
+
+            int aheadTwo = aheadOne + ahead;
+            if (Bitboards.row(square) == startRow && !Bitboards.isSet(occupied, aheadTwo)
+                    && Bitboards.isSet(targetMask, aheadTwo)) {
+                moves.add(Move.of(square, aheadTwo, Move.DOUBLE_PAWN_PUSH, false));
+            }
+        }
+    }
+
+    private static void addPawnMove(int square, int destination, boolean capture, MoveList moves) {
+        int destinationRow = Bitboards.row(destination);
+        if (destinationRow == 8 || destinationRow == 1) {
+            moves.add(Move.promotion(square, destination, ChessPiece.PieceType.QUEEN, capture));
+            moves.add(Move.promotion(square, destination, ChessPiece.PieceType.ROOK, capture));
+            moves.add(Move.promotion(square, destination, ChessPiece.PieceType.KNIGHT, capture));
+            moves.add(Move.promotion(square, destination, ChessPiece.PieceType.BISHOP, capture));
+        } else {
+            moves.add(Move.of(square, destination, Move.NORMAL, capture));
+        }
+    }
+
+    /**
+     * Adds en passant captures for the pawns in fromMask, which only exist for
+     * the team whose turn it is
+     */
+    private static void enPassantMoves(ChessBoard board, ChessGame.TeamColor color, long fromMask, MoveList moves) {
+        enPassantMoves(board, color, fromMask, ~0L, moves);
+    }
+
+    /**
+     * Same as above, but only if the captured pawn's square is in targetMask
+     */
+    private static void enPassantMoves(ChessBoard board, ChessGame.TeamColor color, long fromMask, long targetMask,
+                                       MoveList moves) {
+        int target = board.getEnPassantSquare();
+        if (target == ChessBoard.NO_SQUARE || color != board.getSideToMove()) {
+            return;
+        }
+        int capturedSquare = color == ChessGame.TeamColor.WHITE ? target - 8 : target + 8;
+        if (!Bitboards.isSet(targetMask, capturedSquare)) {
+            return;
+        }
+        // our pawns that attack the target are on the squares an enemy pawn there would attack
+        long attackers = Bitboards.pawnAttacks(target, opponent(color))
+                & board.pieces(color, ChessPiece.PieceType.PAWN) & fromMask;
+        while (attackers != 0) {
+            int from = Long.numberOfTrailingZeros(attackers);
+            attackers &= attackers - 1;
+            moves.add(Move.of(from, target, Move.EN_PASSANT, true));
+        }
+    }
+
+    private static void castlingMoves(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        int rights = board.getCastlingRights();
+        int kingsideRight = ChessBoard.WHITE_KINGSIDE;
+        int queensideRight = ChessBoard.WHITE_QUEENSIDE;
+        int kingSquare = Bitboards.square(1, 5);
+        if (color == ChessGame.TeamColor.BLACK) {
+            kingsideRight = ChessBoard.BLACK_KINGSIDE;
+            queensideRight = ChessBoard.BLACK_QUEENSIDE;
+            kingSquare = Bitboards.square(8, 5);
+        }
+        if ((rights & (kingsideRight | queensideRight)) == 0
+                || !Bitboards.isSet(board.pieces(color, ChessPiece.PieceType.KING), kingSquare)) {
+            return;
+        }
+        long rooks = board.pieces(color, ChessPiece.PieceType.ROOK);
+        long occupied = board.occupied();
+        long kingsideGap = Bitboards.bit(kingSquare + 1) | Bitboards.bit(kingSquare + 2);
+        if ((rights & kingsideRight) != 0 && Bitboards.isSet(rooks, kingSquare + 3) && (occupied & kingsideGap) == 0) {
+            moves.add(Move.of(kingSquare, kingSquare + 2, Move.CASTLING, false));
+        }
+        long queensideGap = Bitboards.bit(kingSquare - 1) | Bitboards.bit(kingSquare - 2) | Bitboards.bit(kingSquare - 3);
+        if ((rights & queensideRight) != 0 && Bitboards.isSet(rooks, kingSquare - 4) && (occupied & queensideGap) == 0) {
+            moves.add(Move.of(kingSquare, kingSquare - 2, Move.CASTLING, false));
+        }
+    }
+
+    static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
@@ -0,0 +1,76 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A reusable buffer of moves encoded with {@link Move}
+ * <p>
+ * The backing array is sized for any legal chess position, so once created a
+ * list can be cleared and refilled without allocating.
+ */
+public final class MoveList {
+
+    /**
+     * More than the most legal moves any chess position can have (218)
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops every move past the given size, for callers that append moves and
+     * then want to roll back to an earlier point
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * @return the moves converted to ChessMoves, in the same order
+     */
+    public Collection<ChessMove> toChessMoves() {
+        ArrayList<ChessMove> chessMoves = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            chessMoves.add(Move.toChessMove(moves[i]));
+        }
+        return chessMoves;
+    }
+}
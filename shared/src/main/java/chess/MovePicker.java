@@ -0,0 +1,233 @@
+package chess;
+
+/**
+ * Hands out the legal moves of a position one at a time, best guesses first,
+ * generating each group of moves only when the one before it runs out
+ * <p>
+ * The stages are:
+ * <ol>
+ *     <li>the hash move, if one is given and it is legal here</li>
+ *     <li>captures, most valuable victim first and then least valuable attacker</li>
+ *     <li>promotions that don't capture</li>
+ *     <li>every other quiet move, castling included</li>
+ * </ol>
+ * A caller that stops after the first few moves never pays for generating
+ * the quiet moves. A picker can be reset and reused, so a search can keep
+ * one per ply and not allocate.
+ */
+public final class MovePicker {
+
+    private static final int HASH_MOVE = 0;
+    private static final int CAPTURES = 1;
+    private static final int PROMOTIONS = 2;
+    private static final int QUIETS = 3;
+    private static final int DONE = 4;
+
+    // indexed by PieceType ordinal; the king sorts last as an attacker and never appears as a victim
+    private static final int[] PIECE_VALUES = {20, 9, 3, 3, 5, 1};
+    private static final long PROMOTION_ROWS = Bitboards.RANK_1 | Bitboards.RANK_8;
+
+    private final MoveList moves = new MoveList();
+    private int[] scores = new int[MoveList.DEFAULT_CAPACITY];
+
+    private ChessBoard board;
+    private ChessGame.TeamColor color;
+    private long fromMask;
+    private int hashMove;
+    private boolean capturesOnly;
+    private int stage;
+    // the next move of the current stage to hand out
+    private int index;
+
+    public MovePicker() {
+    }
+
+    /**
+     * @param board the position to pick moves in
+     * @param color the team to pick moves for
+     */
+    public MovePicker(ChessBoard board, ChessGame.TeamColor color) {
+        reset(board, color, Move.NONE);
+    }
+
+    /**
+     * Starts over on a new position. The board must not change while moves
+     * are being picked, apart from moves that are made and unmade again
+     * before the next call to {@link #next()}.
+     *
+     * @param board    the position to pick moves in
+     * @param color    the team to pick moves for
+     * @param hashMove a move to try before all others, or {@link Move#NONE}
+     */
+    public void reset(ChessBoard board, ChessGame.TeamColor color, int hashMove) {
+        reset(board, color, ~0L, hashMove);
+    }
+
+    /**
+     * Starts over on a new position, picking only captures and promotions and
+     * never generating the quiet moves, as a quiescence search wants
+     *
+     * @param board the position to pick moves in
+     * @param color the team to pick moves for
+     */
+    public void resetCaptures(ChessBoard board, ChessGame.TeamColor color) {
+        reset(board, color, ~0L, Move.NONE);
+        capturesOnly = true;
+    }
+
+    /**
+     * Same as above, but only picks moves of the pieces standing on fromMask
+     */
+    void reset(ChessBoard board, ChessGame.TeamColor color, long fromMask, int hashMove) {
+        this.board = board;
+        this.color = color;
+        this.fromMask = fromMask;
+        this.hashMove = hashMove;
+        capturesOnly = false;
+        stage = HASH_MOVE;
+        index = 0;
+        moves.clear();
+    }
+
+    /**
+     * @return the next legal move, or {@link Move#NONE} once every move has
+     * been handed out
+     */
+    public int next() {
+        while (true) {
+            switch (stage) {
+                case HASH_MOVE -> {
+                    stage = CAPTURES;
+                    generate(board.occupancy(MoveGenerator.opponent(color)), fromMask);
+                    scoreCaptures();
+                    if (hashMove != Move.NONE && isLegal(hashMove)) {
+                        return hashMove;
+                    }
+                }
+                case CAPTURES -> {
+                    if (index < moves.size()) {
+                        int move = pickBestCapture();
+                        if (move != hashMove) {
+                            return move;
+                        }
+                    } else {
+                        stage = PROMOTIONS;
+                        long empty = ~board.occupied();
+                        generate(empty & PROMOTION_ROWS, fromMask & board.pieces(color, ChessPiece.PieceType.PAWN));
+                    }
+                }
+                case PROMOTIONS -> {
+                    if (index < moves.size()) {
+                        int move = moves.get(index++);
+                        if (move != hashMove) {
+                            return move;
+                        }
+                    } else if (capturesOnly) {
+                        stage = DONE;
+                    } else {
+                        stage = QUIETS;
+                        long empty = ~board.occupied();
+                        long pawns = board.pieces(color, ChessPiece.PieceType.PAWN);
+                        generate(empty, fromMask & ~pawns);
+                        MoveGenerator.generateLegalMoves(board, color, fromMask & pawns, empty & ~PROMOTION_ROWS, moves);
+                    }
+                }
+                case QUIETS -> {
+                    if (index < moves.size()) {
+                        int move = moves.get(index++);
+                        if (move != hashMove) {
+                            return move;
+                        }
+                    } else {
+                        stage = DONE;
+                    }
+                }
+                default -> {
+                    return Move.NONE;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the move buffer with the legal moves from fromMask to targetMask
+     */
+    private void generate(long targetMask, long fromMask) {
+        moves.clear();
+        index = 0;
+        if (fromMask != 0) {
+            MoveGenerator.generateLegalMoves(board, color, fromMask, targetMask, moves);
+        }
+    }
+
+    private boolean isLegal(int move) {
+        // captures are already generated, so a capture only needs looking up
+        int from = Move.from(move);
+        if (Move.isCapture(move)) {
+            for (int i = 0; i < moves.size(); i++) {
+                if (moves.get(i) == move) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        ChessPiece piece = board.getPiece(from);
+        if (piece == null || piece.getTeamColor() != color || !Bitboards.isSet(fromMask, from)) {
+            return false;
+        }
+        int start = moves.size();
+        MoveGenerator.generateLegalMoves(board, color, Bitboards.bit(from), ~board.occupied(), moves);
+        boolean found = false;
+        for (int i = start; i < moves.size(); i++) {
+            found |= moves.get(i) == move;
+        }
+        moves.truncate(start);
+        return found;
+    }
+
+    /**
+     * Scores the freshly generated captures by most valuable victim, least
+     * valuable attacker, with a bonus for capturing while promoting
+     */
+    private void scoreCaptures() {
+        if (scores.length < moves.size()) {
+            scores = new int[moves.size()];
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int to = Move.to(move);
+            ChessPiece victim = board.getPiece(to);
+            int victimValue = victim == null ? PIECE_VALUES[ChessPiece.PieceType.PAWN.ordinal()]
+                    : PIECE_VALUES[victim.getPieceType().ordinal()];
+            int attackerValue = PIECE_VALUES[board.getPiece(Move.from(move)).getPieceType().ordinal()];
+            int score = victimValue * 32 - attackerValue;
+            ChessPiece.PieceType promotion = Move.promotionPiece(move);
+            if (promotion != null) {
+                score += PIECE_VALUES[promotion.ordinal()] * 32;
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Swaps the best scoring capture left into the next slot and returns it.
+     * Selecting one at a time means a cutoff after the first capture only
+     * costs one pass over the list instead of a full sort.
+     */
+    private int pickBestCapture() {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        int score = scores[best];
+        moves.set(best, moves.get(index));
+        scores[best] = scores[index];
+        moves.set(index, move);
+        scores[index] = score;
+        index++;
+        return move;
+    }
+}
@@ -0,0 +1,335 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Reads and writes moves in UCI and standard algebraic notation (SAN)
+ * <p>
+ * UCI names the start and end squares and any promotion, as in {@code e2e4}
+ * or {@code e7e8q}. SAN names the piece and where it goes, as in
+ * {@code Nbd7+}, {@code exd5} or {@code O-O}, and only gives the start file
+ * or row when another piece of the same type could make the same move. Both
+ * are checked against a list of the position's legal moves, so SAN
+ * disambiguation is a scan over that list instead of generating moves for
+ * each candidate piece. Square names and letters come from lookup tables and
+ * output goes into a caller's StringBuilder.
+ */
+public final class Notation {
+
+    private static final String[] SQUARE_NAMES = new String[64];
+    // 1-8 for the file letters a-h and row digits 1-8, or 0
+    private static final byte[] FILE_INDEX = new byte[128];
+    private static final byte[] ROW_INDEX = new byte[128];
+    // SAN letter for each PieceType ordinal, with none for pawns
+    private static final String SAN_LETTERS = "KQBNR";
+    // UCI promotion letter for each PieceType ordinal
+    private static final char[] UCI_PROMOTION = {'k', 'q', 'b', 'n', 'r', 'p'};
+    // PieceType ordinal for each letter, uppercase and lowercase, or -1
+    private static final byte[] PIECE_TYPE = new byte[128];
+
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARE_NAMES[square] = "" + (char) ('a' + Bitboards.column(square) - 1)
+                    + (char) ('0' + Bitboards.row(square));
+        }
+        for (int i = 1; i <= 8; i++) {
+            FILE_INDEX['a' + i - 1] = (byte) i;
+            ROW_INDEX['0' + i] = (byte) i;
+        }
+        Arrays.fill(PIECE_TYPE, (byte) -1);
+        for (ChessPiece.PieceType type : PIECE_TYPES) {
+            char letter = UCI_PROMOTION[type.ordinal()];
+            PIECE_TYPE[letter] = (byte) type.ordinal();
+            PIECE_TYPE[Character.toUpperCase(letter)] = (byte) type.ordinal();
+        }
+    }
+
+    private Notation() {
+    }
+
+    /**
+     * Appends a move in UCI notation
+     *
+     * @param move a move encoded with {@link Move}
+     * @param out  where to append it
+     * @return out, for chaining
+     */
+    public static StringBuilder appendUci(int move, StringBuilder out) {
+        out.append(SQUARE_NAMES[Move.from(move)]).append(SQUARE_NAMES[Move.to(move)]);
+        ChessPiece.PieceType promotion = Move.promotionPiece(move);
+        if (promotion != null) {
+            out.append(UCI_PROMOTION[promotion.ordinal()]);
+        }
+        return out;
+    }
+
+    /**
+     * @return the move in UCI notation
+     */
+    public static String toUci(int move) {
+        return appendUci(move, new StringBuilder(5)).toString();
+    }
+
+    /**
+     * Finds the legal move a UCI string describes
+     *
+     * @param uci        the move, such as {@code e2e4} or {@code e7e8q}
+     * @param legalMoves every legal move in the position
+     * @return the matching move from legalMoves, or {@link Move#NONE} if it is not legal
+     * @throws IllegalArgumentException if the string is not valid UCI
+     */
+    public static int parseUci(CharSequence uci, MoveList legalMoves) {
+        int length = uci.length();
+        if (length != 4 && length != 5) {
+            throw invalid("UCI", uci, "expected 4 or 5 characters");
+        }
+        int from = square(uci, 0, "UCI");
+        int to = square(uci, 2, "UCI");
+        int promotion = 0;
+        if (length == 5) {
+            promotion = pieceType(uci.charAt(4)) + 1;
+            if (promotion <= 1 || promotion == ChessPiece.PieceType.PAWN.ordinal() + 1) {
+                throw invalid("UCI", uci, "unknown promotion piece");
+            }
+        }
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            if (Move.from(move) == from && Move.to(move) == to && promotionCode(move) == promotion) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Appends a move in SAN, including a {@code +} or {@code #} if it gives
+     * check or mate. The move is made and taken back on the board to find
+     * that out, so the board must not be shared with other threads.
+     *
+     * @param board      the position before the move
+     * @param move       a legal move in that position
+     * @param legalMoves every legal move in the position, used to decide
+     *                   whether the start file or row must be given
+     * @param scratch    a list to overwrite while looking for a reply to a
+     *                   check, kept by the caller so nothing is allocated
+     * @param out        where to append the move
+     * @return out, for chaining
+     */
+    public static StringBuilder appendSan(ChessBoard board, int move, MoveList legalMoves, MoveList scratch,
+                                          StringBuilder out) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if (Move.kind(move) == Move.CASTLING) {
+            out.append(Bitboards.column(to) == 7 ? "O-O" : "O-O-O");
+        } else {
+            ChessPiece.PieceType type = board.getPiece(from).getPieceType();
+            if (type == ChessPiece.PieceType.PAWN) {
+                if (Move.isCapture(move)) {
+                    out.append((char) ('a' + Bitboards.column(from) - 1));
+                }
+            } else {
+                out.append(SAN_LETTERS.charAt(type.ordinal()));
+                appendDisambiguation(board, move, type, legalMoves, out);
+            }
+            if (Move.isCapture(move)) {
+                out.append('x');
+            }
+            out.append(SQUARE_NAMES[to]);
+            ChessPiece.PieceType promotion = Move.promotionPiece(move);
+            if (promotion != null) {
+                out.append('=').append(SAN_LETTERS.charAt(promotion.ordinal()));
+            }
+        }
+
+        ChessGame.TeamColor opponent = MoveGenerator.opponent(board.getSideToMove());
+        board.makeMove(move);
+        if (board.isInCheck(opponent)) {
+            // only checks need the more expensive look for a way out
+            out.append(MoveGenerator.hasLegalMove(board, opponent, scratch) ? '+' : '#');
+        }
+        board.unmakeMove();
+        return out;
+    }
+
+    /**
+     * @return the move in SAN, see {@link #appendSan}
+     */
+    public static String toSan(ChessBoard board, int move, MoveList legalMoves, MoveList scratch) {
+        return appendSan(board, move, legalMoves, scratch, new StringBuilder(8)).toString();
+    }
+
+    /**
+     * Finds the legal move a SAN string describes. Check, mate and annotation
+     * marks at the end are ignored, as is a missing {@code =} before a
+     * promotion piece, and castling may be written with zeros.
+     *
+     * @param san        the move, such as {@code Nbd7}, {@code exd8=Q+} or {@code O-O}
+     * @param board      the position the move is made in
+     * @param legalMoves every legal move in that position
+     * @return the matching move from legalMoves, or {@link Move#NONE} if it is not legal
+     * @throws IllegalArgumentException if the string is not valid SAN, or
+     *                                  matches more than one legal move
+     */
+    public static int parseSan(CharSequence san, ChessBoard board, MoveList legalMoves) {
+        int end = san.length();
+        while (end > 0 && isSuffix(san.charAt(end - 1))) {
+            end--;
+        }
+        if (end < 2) {
+            throw invalid("SAN", san, "too short");
+        }
+
+        if (san.charAt(0) == 'O' || san.charAt(0) == '0') {
+            return parseCastling(san, end, legalMoves);
+        }
+
+        int promotion = 0;
+        char last = san.charAt(end - 1);
+        if (last >= 'A' && last <= 'Z' || last >= 'a' && last <= 'z' && FILE_INDEX[last] == 0) {
+            promotion = pieceType(last) + 1;
+            if (promotion <= 1 || promotion == ChessPiece.PieceType.PAWN.ordinal() + 1) {
+                throw invalid("SAN", san, "unknown promotion piece");
+            }
+            end--;
+            if (end > 0 && san.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+        if (end < 2) {
+            throw invalid("SAN", san, "missing destination square");
+        }
+        int to = square(san, end - 2, "SAN");
+
+        int i = 0;
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        char first = san.charAt(0);
+        if (first >= 'A' && first <= 'Z') {
+            int ordinal = pieceType(first);
+            if (ordinal < 0 || ordinal == ChessPiece.PieceType.PAWN.ordinal()) {
+                throw invalid("SAN", san, "unknown piece letter");
+            }
+            type = PIECE_TYPES[ordinal];
+            i++;
+        }
+        int fromColumn = 0;
+        int fromRow = 0;
+        int stop = end - 2;
+        if (i < stop && san.charAt(i) < 128 && FILE_INDEX[san.charAt(i)] != 0) {
+            fromColumn = FILE_INDEX[san.charAt(i++)];
+        }
+        if (i < stop && san.charAt(i) < 128 && ROW_INDEX[san.charAt(i)] != 0) {
+            fromRow = ROW_INDEX[san.charAt(i++)];
+        }
+        if (i < stop && (san.charAt(i) == 'x' || san.charAt(i) == ':')) {
+            i++;
+        }
+        if (i != stop) {
+            throw invalid("SAN", san, "unexpected characters");
+        }
+
+        int found = Move.NONE;
+        for (int m = 0; m < legalMoves.size(); m++) {
+            int move = legalMoves.get(m);
+            int from = Move.from(move);
+            if (Move.to(move) != to || promotionCode(move) != promotion
+                    || Move.kind(move) == Move.CASTLING
+                    || board.getPiece(from).getPieceType() != type
+                    || fromColumn != 0 && Bitboards.column(from) != fromColumn
+                    || fromRow != 0 && Bitboards.row(from) != fromRow) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                throw invalid("SAN", san, "more than one legal move matches");
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    /**
+     * Adds the start file, row or both, whichever is enough to tell the move
+     * apart from other legal moves by the same type of piece to the same square
+     */
+    private static void appendDisambiguation(ChessBoard board, int move, ChessPiece.PieceType type,
+                                             MoveList legalMoves, StringBuilder out) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        boolean ambiguous = false;
+        boolean sameColumn = false;
+        boolean sameRow = false;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int other = legalMoves.get(i);
+            int otherFrom = Move.from(other);
+            if (Move.to(other) != to || otherFrom == from || board.getPiece(otherFrom).getPieceType() != type) {
+                continue;
+            }
+            ambiguous = true;
+            sameColumn |= Bitboards.column(otherFrom) == Bitboards.column(from);
+            sameRow |= Bitboards.row(otherFrom) == Bitboards.row(from);
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameColumn) {
+            out.append(SQUARE_NAMES[from].charAt(0));
+        } else if (!sameRow) {
+            out.append(SQUARE_NAMES[from].charAt(1));
+        } else {
+            out.append(SQUARE_NAMES[from]);
+        }
+    }
+
+    private static int parseCastling(CharSequence san, int end, MoveList legalMoves) {
+        char zero = san.charAt(0);
+        int targetColumn;
+        if (end == 3 && san.charAt(1) == '-' && san.charAt(2) == zero) {
+            targetColumn = 7;
+        } else if (end == 5 && san.charAt(1) == '-' && san.charAt(2) == zero
+                && san.charAt(3) == '-' && san.charAt(4) == zero) {
+            targetColumn = 3;
+        } else {
+            throw invalid("SAN", san, "expected O-O or O-O-O");
+        }
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            if (Move.kind(move) == Move.CASTLING && Bitboards.column(Move.to(move)) == targetColumn) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+
+    private static int square(CharSequence text, int i, String notation) {
+        char file = text.charAt(i);
+        char row = text.charAt(i + 1);
+        if (file >= 128 || row >= 128 || FILE_INDEX[file] == 0 || ROW_INDEX[row] == 0) {
+            throw invalid(notation, text, "expected a square at " + i);
+        }
+        return Bitboards.square(ROW_INDEX[row], FILE_INDEX[file]);
+    }
+
+    /**
+     * @return the PieceType ordinal for a letter in either case, or -1
+     */
+    private static int pieceType(char letter) {
+        return letter < 128 ? PIECE_TYPE[letter] : -1;
+    }
+
+    /**
+     * @return the promotion bits of a move, laid out like pieceType(letter) + 1
+     */
+    private static int promotionCode(int move) {
+        ChessPiece.PieceType promotion = Move.promotionPiece(move);
+        return promotion == null ? 0 : promotion.ordinal() + 1;
+    }
+
+    private static IllegalArgumentException invalid(String notation, CharSequence text, String reason) {
+        return new IllegalArgumentException("Invalid " + notation + " move \"" + text + "\": " + reason);
+    }
+}
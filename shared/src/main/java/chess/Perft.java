@@ -0,0 +1,197 @@
+package chess;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth
+ * <p>
+ * Perft ("performance test") numbers for well known positions are published,
+ * so matching them is a strong check that move generation, make and unmake
+ * are correct. Timing a run gives a throughput number for the same code.
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * @param game  the game whose current position to count from
+     * @param depth how many plies deep to count
+     * @return the number of legal move sequences of exactly that length
+     */
+    public static long perft(ChessGame game, int depth) {
+        return perft(game.getBoard(), depth);
+    }
+
+    /**
+     * Counts from the board's position with its side to move. The board is
+     * left exactly as it was.
+     *
+     * @param board the position to count from
+     * @param depth how many plies deep to count
+     * @return the number of legal move sequences of exactly that length
+     */
+    public static long perft(ChessBoard board, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        return perft(board, depth, newMoveLists(depth), null);
+    }
+
+    /**
+     * Counts like {@link #perft(ChessBoard, int)}, but splits the moves at the
+     * root into tasks on a fork/join pool
+     *
+     * @param board       the position to count from, which is copied and never modified
+     * @param depth       how many plies deep to count
+     * @param parallelism how many threads to count with
+     * @return the number of legal move sequences of exactly that length
+     */
+    public static long parallelPerft(ChessBoard board, int depth, int parallelism) {
+        return parallelPerft(board, depth, parallelism, 1, null);
+    }
+
+    /**
+     * Counts like {@link #perft(ChessBoard, int)} on a fork/join pool. Every
+     * move in the first {@code splitPlies} plies becomes its own task with its
+     * own copy of the board, and each task counts the rest of its subtree on
+     * one thread.
+     *
+     * @param board       the position to count from, which is copied and never modified
+     * @param depth       how many plies deep to count
+     * @param parallelism how many threads to count with
+     * @param splitPlies  how many plies to split into tasks, usually 1 or 2
+     * @param table       a table shared by every thread to skip positions that
+     *                    were already counted, or null to count everything
+     * @return the number of legal move sequences of exactly that length
+     */
+    public static long parallelPerft(ChessBoard board, int depth, int parallelism, int splitPlies,
+                                     PerftTable table) {
+        if (depth <= 0) {
+            return 1;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new PerftTask(new ChessBoard(board), depth, splitPlies, table));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Splits the count by the first move, which makes it easy to find the
+     * move whose subtree disagrees with a reference engine
+     *
+     * @param board the position to count from
+     * @param depth how many plies deep to count, at least 1
+     * @return the count below each legal first move, in generation order
+     */
+    public static Map<ChessMove, Long> perftDivide(ChessBoard board, int depth) {
+        MoveList[] moveLists = newMoveLists(depth);
+        MoveList rootMoves = moveLists[depth];
+        rootMoves.clear();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), rootMoves);
+
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            long nodes = 1;
+            if (depth > 1) {
+                board.makeMove(move);
+                nodes = perft(board, depth - 1, moveLists, null);
+                board.unmakeMove();
+            }
+            counts.put(Move.toChessMove(move), nodes);
+        }
+        return counts;
+    }
+
+    /**
+     * @param moveLists one reusable buffer per remaining depth, so the whole
+     *                  search runs without allocating
+     * @param table     counts of positions already seen, or null
+     */
+    static long perft(ChessBoard board, int depth, MoveList[] moveLists, PerftTable table) {
+        // look the position up first, so a hit skips generating its moves
+        if (table != null && depth > 1) {
+            long stored = table.probe(board.zobristKey(), depth);
+            if (stored >= 0) {
+                return stored;
+            }
+        }
+        MoveList moves = moveLists[depth];
+        moves.clear();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+        if (depth == 1) {
+            // every legal move is a leaf, so there is no need to make them
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += perft(board, depth - 1, moveLists, table);
+            board.unmakeMove();
+        }
+        if (table != null) {
+            table.store(board.zobristKey(), depth, nodes);
+        }
+        return nodes;
+    }
+
+    static MoveList[] newMoveLists(int depth) {
+        MoveList[] moveLists = new MoveList[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return moveLists;
+    }
+
+    /**
+     * Counts one subtree. Tasks still splitting make every move on a fresh
+     * copy of their board and fork a child task for it; the rest count
+     * serially on the board they own.
+     */
+    private static final class PerftTask extends RecursiveTask<Long> {
+        // tasks only live inside one parallelPerft call and are never serialized
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient ChessBoard board;
+        private final int depth;
+        private final int splitPlies;
+        private final transient PerftTable table;
+
+        PerftTask(ChessBoard board, int depth, int splitPlies, PerftTable table) {
+            this.board = board;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+            this.table = table;
+        }
+
+        @Override
+        protected Long compute() {
+            if (splitPlies <= 0 || depth <= 1) {
+                return perft(board, depth, newMoveLists(depth), table);
+            }
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+            List<PerftTask> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                ChessBoard child = new ChessBoard(board);
+                child.makeMove(moves.get(i));
+                children.add(new PerftTask(child, depth - 1, splitPlies - 1, table));
+            }
+            long nodes = 0;
+            for (PerftTask child : invokeAll(children)) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+}
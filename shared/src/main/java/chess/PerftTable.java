@@ -0,0 +1,63 @@
+package chess;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size transposition table for perft counts that many threads can
+ * share without locking
+ * <p>
+ * Each slot holds two longs: the key XOR the data, and the data. A reader
+ * only accepts a slot whose two halves XOR back to the key it is looking
+ * for, so a slot torn by two threads writing at once reads as a miss rather
+ * than a wrong count. New entries always replace old ones.
+ */
+public final class PerftTable {
+
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    /**
+     * @param capacity the most entries to keep, rounded down to a power of
+     *                 two. Each entry takes 16 bytes.
+     */
+    public PerftTable(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int size = Integer.highestOneBit(capacity);
+        slots = new AtomicLongArray(size * 2);
+        mask = size - 1;
+    }
+
+    /**
+     * @return the node count stored for the position and depth, or -1 if
+     * there is none
+     */
+    long probe(long zobristKey, int depth) {
+        long key = entryKey(zobristKey, depth);
+        int slot = index(key);
+        long data = slots.get(slot + 1);
+        if (data == 0 || (slots.get(slot) ^ data) != key) {
+            return -1;
+        }
+        return data - 1;
+    }
+
+    void store(long zobristKey, int depth, long nodes) {
+        long key = entryKey(zobristKey, depth);
+        int slot = index(key);
+        // counts are stored off by one so an empty slot never matches
+        long data = nodes + 1;
+        slots.set(slot, key ^ data);
+        slots.set(slot + 1, data);
+    }
+
+    // the same position is counted separately at each depth
+    private static long entryKey(long zobristKey, int depth) {
+        return zobristKey + depth * 0x9E3779B97F4A7C15L;
+    }
+
+    private int index(long key) {
+        return ((int) (key ^ (key >>> 32)) & mask) * 2;
+    }
+}
@@ -0,0 +1,202 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Magic-bitboard attack tables for the sliding pieces
+ * <p>
+ * For every square the occupancy bits that can block a rook or bishop are
+ * multiplied by a magic number and shifted down, giving a perfect hash into a
+ * table of precomputed attack sets, so a lookup is a mask, a multiply, a
+ * shift and an array read. The magic numbers below were found offline with a
+ * seeded random search; only the attack tables are filled at class load.
+ */
+final class SlidingAttacks {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = {
+            0x038004801120C004L, 0x08C0004020011000L, 0x0200082080420010L, 0x0080080010008006L,
+            0x46001020040A0028L, 0x2100080400010002L, 0x1200080082000104L, 0x0100002200508100L,
+            0x1010800040008030L, 0x0044804000802004L, 0x0001002008110040L, 0x0485001001010C20L,
+            0x2820808004000800L, 0x0002808004002200L, 0x0001000100040200L, 0x0414800080004100L,
+            0x088000C000200041L, 0x4420808020004008L, 0x2010012004002800L, 0x0000220042000810L,
+            0x0001828008000400L, 0xA000880120100440L, 0x105434000810010AL, 0x0002060000428324L,
+            0x0080822480044000L, 0x0240080020100020L, 0x4080100080802000L, 0x0000100080080084L,
+            0x0000080080800400L, 0x0006000600181014L, 0x0004010400021008L, 0x1000011A0002C284L,
+            0x0240284000800881L, 0x0010002001400050L, 0x0000100080802000L, 0x0010004400400800L,
+            0x0206000422001008L, 0x4010800400800200L, 0x0002004426001829L, 0x0000408106000A44L,
+            0x1000400220818000L, 0xA410004020004000L, 0x1529001220010040L, 0x0708000810008080L,
+            0x0010080100050010L, 0x1E40020004008080L, 0x0000419210140048L, 0x0881886485120004L,
+            0x0010482080010500L, 0x4080400020100040L, 0x0004200041081100L, 0xAC00801000080080L,
+            0x0201008020401002L, 0x0060040002008080L, 0x2905100802010400L, 0x0048145504008200L,
+            0x0219024200802212L, 0x0A20E58242003102L, 0x80010010A0008C41L, 0x0801000420081001L,
+            0xC001001042080045L, 0x9021000400020801L, 0x0409000082000441L, 0x4820004400248502L
+    };
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = {
+            0x0040100100459180L, 0x0908014414004482L, 0xC0910400A200A002L, 0x8828215040000404L,
+            0x1104102910000100L, 0x00311420040A0300L, 0x8101044120080800L, 0x0C08A4040A015000L,
+            0x0200204250090108L, 0x0000888208044501L, 0x80001444039A0004L, 0x228004440A810001L,
+            0x484101104004408CL, 0x00C1931006904002L, 0x0000806124104000L, 0x22101041008820C4L,
+            0x80048AA820848400L, 0x0024138901440408L, 0x0808020420202200L, 0x1988080082044000L,
+            0x2003000090400010L, 0x1002001101010104L, 0x0021000441101082L, 0x8210801210411812L,
+            0x8083200070041010L, 0x0001200410840130L, 0x00024410C0410200L, 0x40400400844100A0L,
+            0x0100404004010040L, 0x4000D3000180A000L, 0x001084000C94045AL, 0x1812120045410880L,
+            0x400105204110A012L, 0x000092A001102400L, 0x00240058006400A0L, 0x0002020081480082L,
+            0x2600410040040040L, 0xA108020810018801L, 0x4024080880004400L, 0x9108988210008600L,
+            0x00C80210040D1082L, 0xC081108820002400L, 0x0100208020801000L, 0x4060002204202801L,
+            0x008202020E010400L, 0x0240302405210941L, 0x0920120210420221L, 0x0614A08281001201L,
+            0x010200842008108CL, 0x0020240208040100L, 0x00A08056080C0086L, 0x8020020042088080L,
+            0x28B2000490441920L, 0x4100622004012002L, 0x0004050408220200L, 0x4010040140420810L,
+            0x0002844108200200L, 0x820401024A222048L, 0x0104B44200940422L, 0x1108090800420202L,
+            0x4122000010020884L, 0x30010242040C0C20L, 0x0018C044C4008200L, 0x00C80101480A0280L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] BISHOP_TABLE;
+
+    // squares strictly between two squares on a shared rank, file or diagonal, indexed [from * 64 + to]
+    private static final long[] BETWEEN = new long[64 * 64];
+    // the whole rank, file or diagonal through two aligned squares, or 0 if they aren't aligned
+    private static final long[] LINE = new long[64 * 64];
+
+    static {
+        ROOK_TABLE = initTable(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_TABLE = initTable(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                if (from == to) {
+                    continue;
+                }
+                long ends = Bitboards.bit(from) | Bitboards.bit(to);
+                if (Bitboards.isSet(rookAttacks(from, 0), to)) {
+                    BETWEEN[from * 64 + to] = rookAttacks(from, Bitboards.bit(to)) & rookAttacks(to, Bitboards.bit(from));
+                    LINE[from * 64 + to] = (rookAttacks(from, 0) & rookAttacks(to, 0)) | ends;
+                } else if (Bitboards.isSet(bishopAttacks(from, 0), to)) {
+                    BETWEEN[from * 64 + to] = bishopAttacks(from, Bitboards.bit(to)) & bishopAttacks(to, Bitboards.bit(from));
+                    LINE[from * 64 + to] = (bishopAttacks(from, 0) & bishopAttacks(to, 0)) | ends;
+                }
+            }
+        }
+    }
+
+    private SlidingAttacks() {
+    }
+
+    /**
+     * @return every square a rook on the given square attacks, stopping at (and
+     * including) the first occupied square in each direction
+     */
+    static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLE[ROOK_OFFSETS[square] + index];
+    }
+
+    /**
+     * @return every square a bishop on the given square attacks, stopping at
+     * (and including) the first occupied square in each direction
+     */
+    static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLE[BISHOP_OFFSETS[square] + index];
+    }
+
+    static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * @return the squares strictly between two squares that share a rank,
+     * file or diagonal, or 0 if they don't
+     */
+    static long between(int from, int to) {
+        return BETWEEN[from * 64 + to];
+    }
+
+    /**
+     * @return every square on the rank, file or diagonal running through both
+     * squares, or 0 if they don't share one
+     */
+    static long line(int from, int to) {
+        return LINE[from * 64 + to];
+    }
+
+    private static long[] initTable(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int tableSize = 0;
+        for (int square = 0; square < 64; square++) {
+            masks[square] = relevantOccupancy(square, directions);
+            offsets[square] = tableSize;
+            tableSize += 1 << Long.bitCount(masks[square]);
+        }
+
+        long[] table = new long[tableSize];
+        boolean[] filled = new boolean[4096];
+        for (int square = 0; square < 64; square++) {
+            long mask = masks[square];
+            shifts[square] = 64 - Long.bitCount(mask);
+            Arrays.fill(filled, false);
+
+            // enumerate every subset of the mask with the carry-rippler trick
+            long subset = 0;
+            do {
+                int index = (int) ((subset * magics[square]) >>> shifts[square]);
+                long attacks = slowAttacks(square, subset, directions);
+                if (filled[index] && table[offsets[square] + index] != attacks) {
+                    throw new IllegalStateException("Bad magic number for square " + square);
+                }
+                filled[index] = true;
+                table[offsets[square] + index] = attacks;
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+        }
+        return table;
+    }
+
+    /**
+     * @return the squares that can block a slider on the given square, which
+     * excludes the last square of each ray since it is attacked either way
+     */
+    private static long relevantOccupancy(int square, int[][] directions) {
+        long mask = 0;
+        int row = Bitboards.row(square);
+        int col = Bitboards.column(square);
+        for (int[] direction : directions) {
+            int r = row + direction[0];
+            int c = col + direction[1];
+            while (r + direction[0] >= 1 && r + direction[0] <= 8 && c + direction[1] >= 1 && c + direction[1] <= 8) {
+                mask |= Bitboards.bit(Bitboards.square(r, c));
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slowAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        int row = Bitboards.row(square);
+        int col = Bitboards.column(square);
+        for (int[] direction : directions) {
+            int r = row + direction[0];
+            int c = col + direction[1];
+            while (r >= 1 && r <= 8 && c >= 1 && c <= 8) {
+                long bit = Bitboards.bit(Bitboards.square(r, c));
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return attacks;
+    }
+}
@@ -0,0 +1,56 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing
+ * <p>
+ * A position's key is the XOR of one key per piece on its square, plus keys
+ * for the side to move, the castling rights and the en passant file. Since
+ * XOR undoes itself, a move only has to XOR in the handful of keys it changes.
+ * The keys come from a fixed seed so they are the same on every run.
+ */
+final class Zobrist {
+
+    private static final long[] PIECE_SQUARE = new long[12 * 64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        long seed = 0x2D358DCCAA6C78A5L;
+        for (int i = 0; i < PIECE_SQUARE.length; i++) {
+            PIECE_SQUARE[i] = splitMix(seed += 0x9E3779B97F4A7C15L);
+        }
+        // no castling rights hashes to 0 so boards without rights only depend on their pieces
+        for (int i = 1; i < CASTLING.length; i++) {
+            CASTLING[i] = splitMix(seed += 0x9E3779B97F4A7C15L);
+        }
+        for (int i = 0; i < EN_PASSANT_FILE.length; i++) {
+            EN_PASSANT_FILE[i] = splitMix(seed += 0x9E3779B97F4A7C15L);
+        }
+        BLACK_TO_MOVE = splitMix(seed + 0x9E3779B97F4A7C15L);
+    }
+
+    private Zobrist() {
+    }
+
+    static long piece(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex * 64 + square];
+    }
+
+    static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @return the key for an en passant square, or 0 for NO_SQUARE
+     */
+    static long enPassant(int square) {
+        return square == ChessBoard.NO_SQUARE ? 0 : EN_PASSANT_FILE[square & 7];
+    }
+
+    private static long splitMix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,161 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Scores a position by material and piece-square tables, in centipawns from
+ * the side to move's point of view
+ * <p>
+ * The tables are the widely used "simplified evaluation function" ones. The
+ * king has separate middlegame and endgame tables, blended by how much
+ * non-pawn material is left, so it hides behind its pawns early on and walks
+ * to the center once the heavy pieces are traded. Each piece's value and
+ * table entry are folded into one lookup per piece and square ahead of time,
+ * so evaluating is a walk over the twelve piece bitboards.
+ */
+public final class Evaluation {
+
+    // indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+    // how much each piece type counts towards the middlegame
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+    private static final int MAX_PHASE = 24;
+
+    // white's point of view, row 8 first, so white pieces look up square ^ 56
+    private static final int[][] TABLES = {
+            null, // kings are scored with KING_MIDDLEGAME and KING_ENDGAME
+            {
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+            },
+            {
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+            },
+            {
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+            },
+            {
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0,
+            },
+            {
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0,
+            },
+    };
+    private static final int[] KING_MIDDLEGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20,
+    };
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50,
+    };
+
+    // value plus table entry, negated for black, indexed by [color * 6 + type][square]
+    private static final int[][] PIECE_SQUARE = new int[12][64];
+    private static final int[][] KING_MIDDLEGAME_SQUARE = new int[2][64];
+    private static final int[][] KING_ENDGAME_SQUARE = new int[2][64];
+
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+
+    static {
+        for (ChessGame.TeamColor color : COLORS) {
+            int sign = color == ChessGame.TeamColor.WHITE ? 1 : -1;
+            int flip = color == ChessGame.TeamColor.WHITE ? 56 : 0;
+            for (int square = 0; square < 64; square++) {
+                for (ChessPiece.PieceType type : PIECE_TYPES) {
+                    if (type != ChessPiece.PieceType.KING) {
+                        PIECE_SQUARE[color.ordinal() * 6 + type.ordinal()][square] =
+                                sign * (PIECE_VALUES[type.ordinal()] + TABLES[type.ordinal()][square ^ flip]);
+                    }
+                }
+                KING_MIDDLEGAME_SQUARE[color.ordinal()][square] = sign * KING_MIDDLEGAME[square ^ flip];
+                KING_ENDGAME_SQUARE[color.ordinal()][square] = sign * KING_ENDGAME[square ^ flip];
+            }
+        }
+    }
+
+    private Evaluation() {
+    }
+
+    /**
+     * @param board the position to score
+     * @return the score in centipawns, positive when the side to move is better
+     */
+    public static int evaluate(ChessBoard board) {
+        int score = 0;
+        int phase = 0;
+        int kingMiddlegame = 0;
+        int kingEndgame = 0;
+        for (ChessGame.TeamColor color : COLORS) {
+            for (ChessPiece.PieceType type : PIECE_TYPES) {
+                long pieces = board.pieces(color, type);
+                if (type == ChessPiece.PieceType.KING) {
+                    if (pieces != 0) {
+                        int square = Long.numberOfTrailingZeros(pieces);
+                        kingMiddlegame += KING_MIDDLEGAME_SQUARE[color.ordinal()][square];
+                        kingEndgame += KING_ENDGAME_SQUARE[color.ordinal()][square];
+                    }
+                    continue;
+                }
+                int[] table = PIECE_SQUARE[color.ordinal() * 6 + type.ordinal()];
+                phase += PHASE_WEIGHTS[type.ordinal()] * Long.bitCount(pieces);
+                while (pieces != 0) {
+                    score += table[Long.numberOfTrailingZeros(pieces)];
+                    pieces &= pieces - 1;
+                }
+            }
+        }
+        phase = Math.min(phase, MAX_PHASE);
+        score += (kingMiddlegame * phase + kingEndgame * (MAX_PHASE - phase)) / MAX_PHASE;
+        return board.getSideToMove() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,368 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.Move;
+import chess.MovePicker;
+
+import java.util.Arrays;
+
+/**
+ * Finds the best move in a position with a negamax alpha-beta search
+ * <p>
+ * The search deepens one ply at a time, so it always has the result of the
+ * last finished iteration to fall back on when the time or node budget runs
+ * out, and each iteration tries the previous one's best line first. Within
+ * an iteration:
+ * <ul>
+ *     <li>moves come from a {@link MovePicker} per ply, hash move first,
+ *     then captures by most valuable victim</li>
+ *     <li>the first move at each node gets a full window and the rest a null
+ *     window, only searched again in full if they turn out better
+ *     (principal variation search)</li>
+ *     <li>moves that give check are searched a ply deeper</li>
+ *     <li>at the horizon a quiescence search plays out captures and
+ *     promotions, so a position is never scored halfway through a trade</li>
+ *     <li>a transposition table keyed by Zobrist key remembers bounds and
+ *     best moves across iterations</li>
+ *     <li>repetitions within the search and the fifty-move rule score as draws</li>
+ * </ul>
+ * A Search reuses its buffers and table from one call to the next, so a
+ * server can keep one per computer opponent. It must only be used by one
+ * thread at a time, though {@link #stop()} may be called from any thread.
+ */
+public final class Search {
+
+    /**
+     * The deepest iteration a search will start
+     */
+    public static final int MAX_DEPTH = 64;
+
+    /**
+     * The score of being checkmated right now. Mate in n plies scores
+     * MATE - n, and being mated in n plies scores -(MATE - n).
+     */
+    public static final int MATE = 30_000;
+
+    // how far the search can reach, counting check extensions and the quiescence search
+    static final int MAX_PLY = 128;
+    // scores beyond this are mates
+    static final int MATE_BOUND = MATE - MAX_PLY;
+
+    private static final int INFINITY = 32_000;
+    // how many nodes go by between looks at the clock
+    private static final int CHECK_INTERVAL = 1024;
+    private static final int DEFAULT_TABLE_MB = 16;
+
+    private final TranspositionTable table;
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+    // the best line found from each ply, triangular: pv[ply] starts at index ply
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+
+    private ChessBoard board;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean stopped;
+    private int rootScore;
+    private volatile boolean stopRequested;
+
+    public Search() {
+        this(DEFAULT_TABLE_MB);
+    }
+
+    /**
+     * @param tableMegabytes roughly how much memory the transposition table
+     *                       may use, rounded down to a power of two
+     */
+    public Search(int tableMegabytes) {
+        if (tableMegabytes < 1) {
+            throw new IllegalArgumentException("The table needs at least 1 MB");
+        }
+        // each entry takes 16 bytes
+        int entries = Integer.highestOneBit((int) Math.min(Integer.MAX_VALUE / 2, tableMegabytes * (1L << 16)));
+        table = new TranspositionTable(Integer.numberOfTrailingZeros(entries));
+        for (int i = 0; i < MAX_PLY; i++) {
+            pickers[i] = new MovePicker();
+        }
+    }
+
+    /**
+     * Searches the game's current position for the team whose turn it is.
+     * The game is not changed.
+     *
+     * @param game   the game to find a move in
+     * @param limits when to stop searching
+     * @return the best move found, its score and the expected line of play
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game.getBoard(), limits);
+    }
+
+    /**
+     * Searches a position for its side to move. The search runs on a copy of
+     * the board, so the board is not changed, and only repetitions within the
+     * search are seen, not ones with earlier moves of the game.
+     *
+     * @param position the position to find a move in
+     * @param limits   when to stop searching
+     * @return the best move found, its score and the expected line of play
+     */
+    public SearchResult search(ChessBoard position, SearchLimits limits) {
+        long start = System.nanoTime();
+        board = new ChessBoard(position);
+        nodes = 0;
+        nodeLimit = limits.getNodes() > 0 ? limits.getNodes() : Long.MAX_VALUE;
+        deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() * 1_000_000 : Long.MAX_VALUE;
+        stopped = false;
+        stopRequested = false;
+
+        int bestMove = Move.NONE;
+        int bestScore = 0;
+        int[] bestLine = new int[0];
+        int completed = 0;
+        for (int depth = 1; depth <= limits.getDepth(); depth++) {
+            rootScore = -INFINITY;
+            negamax(depth, 0, -INFINITY, INFINITY);
+            // a cut short iteration still counts if it finished a move, which
+            // matters when the budget runs out before the first iteration ends
+            if (stopped && completed > 0) {
+                break;
+            }
+            if (pvLength[0] > 0) {
+                bestMove = pv[0][0];
+                bestScore = rootScore;
+                bestLine = Arrays.copyOf(pv[0], pvLength[0]);
+            }
+            if (stopped) {
+                break;
+            }
+            completed = depth;
+            // no deeper search can find a shorter mate
+            if (Math.abs(bestScore) > MATE_BOUND && MATE - Math.abs(bestScore) <= depth) {
+                break;
+            }
+            // the next iteration would most likely not finish in the time left
+            if (deadline != Long.MAX_VALUE && System.nanoTime() - start > (deadline - start) / 2) {
+                break;
+            }
+        }
+
+        if (bestMove == Move.NONE) {
+            // nothing finished, so fall back to any legal move
+            MovePicker picker = pickers[0];
+            picker.reset(board, board.getSideToMove(), Move.NONE);
+            bestMove = picker.next();
+            if (bestMove != Move.NONE) {
+                bestScore = 0;
+                bestLine = new int[]{bestMove};
+            } else {
+                bestScore = board.isInCheck(board.getSideToMove()) ? -MATE : 0;
+            }
+        }
+        board = null;
+        return new SearchResult(bestMove, bestScore, bestLine, completed, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Asks a running search to return as soon as it can, with the best move
+     * found so far. Safe to call from any thread.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Forgets everything the transposition table learned, for example when
+     * starting a new game
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (ply > 0 && (board.getHalfmoveClock() >= 100 || board.repetitionCount() > 0)) {
+            return 0;
+        }
+        ChessGame.TeamColor color = board.getSideToMove();
+        boolean inCheck = board.isInCheck(color);
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiesce(ply, alpha, beta);
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(board);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        long key = board.zobristKey();
+        long entry = table.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            // only null window nodes take cutoffs, so the principal variation stays whole
+            if (beta - alpha == 1 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        MovePicker picker = pickers[ply];
+        picker.reset(board, color, hashMove);
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+        int moveCount = 0;
+        int move;
+        while ((move = picker.next()) != Move.NONE) {
+            board.makeMove(move);
+            moveCount++;
+            int score;
+            if (moveCount == 1) {
+                score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            } else {
+                score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+                }
+            }
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (ply == 0) {
+                        rootScore = score;
+                    }
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (moveCount == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Plays out captures and promotions until the position is quiet. The side
+     * to move may stand pat on the static score instead of capturing, unless
+     * it is in check, in which case every evasion is tried.
+     */
+    private int quiesce(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (countNode()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(board);
+        }
+        ChessGame.TeamColor color = board.getSideToMove();
+        boolean inCheck = board.isInCheck(color);
+        MovePicker picker = pickers[ply];
+        int bestScore;
+        if (inCheck) {
+            bestScore = -INFINITY;
+            picker.reset(board, color, Move.NONE);
+        } else {
+            bestScore = Evaluation.evaluate(board);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+            picker.resetCaptures(board, color);
+        }
+
+        int move;
+        while ((move = picker.next()) != Move.NONE) {
+            board.makeMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore == -INFINITY ? -MATE + ply : bestScore;
+    }
+
+    /**
+     * Counts a visited node and checks the budgets, looking at the clock
+     * only every CHECK_INTERVAL nodes
+     *
+     * @return True if the search must stop
+     */
+    private boolean countNode() {
+        nodes++;
+        if (nodes >= nodeLimit
+                || (nodes & (CHECK_INTERVAL - 1)) == 0 && (stopRequested || System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Makes the best line from ply the move followed by the best line from the next ply
+     */
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        int length = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, length - (ply + 1));
+        pvLength[ply] = length;
+    }
+
+    /**
+     * Mate scores count plies from the root, but the table is shared between
+     * plies, so they are stored counting from the node instead
+     */
+    private static int toTable(int score, int ply) {
+        if (score > MATE_BOUND) {
+            return score + ply;
+        }
+        if (score < -MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > MATE_BOUND) {
+            return score - ply;
+        }
+        if (score < -MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,85 @@
+package chess.engine;
+
+/**
+ * How long a {@link Search} may run: a maximum depth, a time budget and a
+ * node budget, whichever runs out first. Limits are immutable, so one can
+ * be shared between searches.
+ * <pre>
+ * SearchLimits.time(500).withNodes(1_000_000)
+ * </pre>
+ */
+public final class SearchLimits {
+
+    /**
+     * No limit on depth, time or nodes. The search still stops once it
+     * reaches {@link Search#MAX_DEPTH} or finds a forced mate.
+     */
+    public static final SearchLimits NONE = new SearchLimits(Search.MAX_DEPTH, 0, 0);
+
+    private final int depth;
+    private final long timeMillis;
+    private final long nodes;
+
+    private SearchLimits(int depth, long timeMillis, long nodes) {
+        if (depth < 1 || depth > Search.MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be from 1 to " + Search.MAX_DEPTH);
+        }
+        if (timeMillis < 0 || nodes < 0) {
+            throw new IllegalArgumentException("Time and node budgets can't be negative");
+        }
+        this.depth = depth;
+        this.timeMillis = timeMillis;
+        this.nodes = nodes;
+    }
+
+    /**
+     * @param depth the deepest iteration to search, in plies
+     */
+    public static SearchLimits depth(int depth) {
+        return NONE.withDepth(depth);
+    }
+
+    /**
+     * @param timeMillis how long to search for, measured from the start of the search
+     */
+    public static SearchLimits time(long timeMillis) {
+        return NONE.withTime(timeMillis);
+    }
+
+    /**
+     * @param nodes how many positions to visit at most
+     */
+    public static SearchLimits nodes(long nodes) {
+        return NONE.withNodes(nodes);
+    }
+
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(depth, timeMillis, nodes);
+    }
+
+    public SearchLimits withTime(long timeMillis) {
+        return new SearchLimits(depth, timeMillis, nodes);
+    }
+
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(depth, timeMillis, nodes);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the time budget in milliseconds, or 0 for none
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * @return the node budget, or 0 for none
+     */
+    public long getNodes() {
+        return nodes;
+    }
+}
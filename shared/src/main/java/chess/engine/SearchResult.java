@@ -0,0 +1,133 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.Move;
+import chess.Notation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What a {@link Search} found: the move to play, how good it is and the line
+ * of play it expects to follow
+ */
+public final class SearchResult {
+
+    private final int bestMove;
+    private final int score;
+    private final int[] principalVariation;
+    private final int depth;
+    private final long nodes;
+    private final long timeNanos;
+
+    SearchResult(int bestMove, int score, int[] principalVariation, int depth, long nodes, long timeNanos) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.principalVariation = principalVariation;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeNanos = timeNanos;
+    }
+
+    /**
+     * @return the move to play, or null if the side to move has no legal move
+     */
+    public ChessMove getBestMove() {
+        return bestMove == Move.NONE ? null : Move.toChessMove(bestMove);
+    }
+
+    /**
+     * @return the best move encoded with {@link Move}, or {@link Move#NONE}
+     */
+    public int getBestMoveEncoded() {
+        return bestMove;
+    }
+
+    /**
+     * @return the score in centipawns from the side to move's point of view,
+     * or {@link Search#MATE} less the plies to mate for a forced mate, negated
+     * if the side to move gets mated
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return True if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) > Search.MATE_BOUND;
+    }
+
+    /**
+     * @return the number of moves, counting both sides, until the mate, which
+     * is positive if the side to move gives it and negative if it receives it
+     */
+    public int getMatePlies() {
+        if (!isMate()) {
+            throw new IllegalStateException("Score " + score + " is not a mate");
+        }
+        return score > 0 ? Search.MATE - score : -(Search.MATE + score);
+    }
+
+    /**
+     * @return the number of the mating side's moves until the mate, as UCI
+     * counts it, with the same sign as {@link #getMatePlies()}
+     */
+    public int getMateMoves() {
+        int plies = getMatePlies();
+        return plies >= 0 ? (plies + 1) / 2 : -((1 - plies) / 2);
+    }
+
+    /**
+     * @return the expected line of play, starting with the best move
+     */
+    public List<ChessMove> getPrincipalVariation() {
+        List<ChessMove> moves = new ArrayList<>(principalVariation.length);
+        for (int move : principalVariation) {
+            moves.add(Move.toChessMove(move));
+        }
+        return Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * @return the depth of the deepest iteration that finished
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the number of positions visited, including the quiescence search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeNanos / 1_000_000;
+    }
+
+    public long getNodesPerSecond() {
+        return timeNanos == 0 ? 0 : nodes * 1_000_000_000L / timeNanos;
+    }
+
+    /**
+     * @return the result laid out like a UCI info line, for logging
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder(64).append("depth ").append(depth);
+        if (isMate()) {
+            out.append(" score mate ").append(getMateMoves());
+        } else {
+            out.append(" score cp ").append(score);
+        }
+        out.append(" nodes ").append(nodes).append(" nps ").append(getNodesPerSecond()).append(" pv");
+        for (int move : principalVariation) {
+            Notation.appendUci(move, out.append(' '));
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package chess.engine;
+
+import chess.Move;
+
+import java.util.Arrays;
+
+/**
+ * Remembers what the search learned about positions it has already visited,
+ * keyed by Zobrist key
+ * <p>
+ * Each entry is two longs: the full key and the packed data, laid out from
+ * the lowest bit up as
+ * <pre>
+ *  bits  0-17  best move, encoded with {@link Move}
+ *  bit   18    set if there is a best move
+ *  bits 19-20  bound: EXACT, LOWER or UPPER
+ *  bits 21-28  depth searched
+ *  bit   31    always set, so a stored entry is never 0
+ *  bits 32-63  score
+ * </pre>
+ * A table belongs to one search thread. New entries always replace old
+ * ones, which keeps the table tracking the part of the tree being searched.
+ */
+final class TranspositionTable {
+
+    static final int EXACT = 0;
+    // the score is at least the stored one, after a beta cutoff
+    static final int LOWER = 1;
+    // the score is at most the stored one, when no move raised alpha
+    static final int UPPER = 2;
+
+    private static final int MOVE_MASK = (1 << 18) - 1;
+    private static final int HAS_MOVE = 1 << 18;
+    private static final int BOUND_SHIFT = 19;
+    private static final int DEPTH_SHIFT = 21;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    /**
+     * @param sizeBits the table holds 2^sizeBits entries of 16 bytes each
+     */
+    TranspositionTable(int sizeBits) {
+        keys = new long[1 << sizeBits];
+        data = new long[1 << sizeBits];
+        mask = (1 << sizeBits) - 1;
+    }
+
+    /**
+     * @return the packed data stored for the key, or 0 if there is none
+     */
+    long probe(long key) {
+        int index = (int) key & mask;
+        return keys[index] == key ? data[index] : 0;
+    }
+
+    void store(long key, int move, int score, int depth, int bound) {
+        int index = (int) key & mask;
+        keys[index] = key;
+        int low = (move == Move.NONE ? 0 : HAS_MOVE | (move & MOVE_MASK))
+                | (bound << BOUND_SHIFT) | (depth << DEPTH_SHIFT);
+        data[index] = ((long) score << 32) | (low & 0xFFFFFFFFL) | (1L << 31);
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    static int move(long entry) {
+        return (entry & HAS_MOVE) != 0 ? (int) entry & MOVE_MASK : Move.NONE;
+    }
+
+    static int score(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    static int bound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+}
@@ -0,0 +1,78 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that board snapshots copy the whole position and don't follow later changes
+ */
+public class BoardSnapshotTests {
+
+    @Test
+    @DisplayName("Snapshot Matches Board")
+    public void snapshotMatchesBoard() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        var board = game.getBoard();
+
+        BoardSnapshot snapshot = board.snapshot();
+
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var position = ChessPosition.of(row, col);
+                Assertions.assertEquals(board.getPiece(position), snapshot.getPiece(position));
+            }
+        }
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, snapshot.getSideToMove());
+        Assertions.assertEquals(1, snapshot.getHalfmoveClock());
+        Assertions.assertEquals(board.zobristKey(), snapshot.zobristKey());
+    }
+
+    @Test
+    @DisplayName("Snapshot Ignores Later Moves")
+    public void snapshotIgnoresLaterMoves() throws InvalidMoveException {
+        var game = new ChessGame();
+        BoardSnapshot before = game.getBoard().snapshot();
+
+        game.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+
+        Assertions.assertNotNull(before.getPiece(ChessPosition.of(1, 7)));
+        Assertions.assertNull(before.getPiece(ChessPosition.of(3, 6)));
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, before.getSideToMove());
+        Assertions.assertNotEquals(before, game.getBoard().snapshot());
+
+        game.getBoard().unmakeMove();
+        Assertions.assertEquals(before, game.getBoard().snapshot());
+    }
+
+    @Test
+    @DisplayName("Snapshot Round Trips To Board")
+    public void snapshotRoundTripsToBoard() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        board.addPiece(ChessPosition.of(1, 8), null);
+        board.setCastlingRights(ChessBoard.WHITE_QUEENSIDE | ChessBoard.BLACK_KINGSIDE);
+        board.setSideToMove(ChessGame.TeamColor.BLACK);
+
+        ChessBoard copy = board.snapshot().toBoard();
+
+        Assertions.assertEquals(board, copy);
+        Assertions.assertEquals(board.zobristKey(), copy.zobristKey());
+        Assertions.assertEquals(board.getCastlingRights(), copy.getCastlingRights());
+        Assertions.assertEquals(0, copy.getUndoCount());
+    }
+
+    @Test
+    @DisplayName("Snapshot Keeps Move Counters")
+    public void snapshotKeepsMoveCounters() {
+        String fen = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - 12 57";
+        var board = ChessGame.fromFen(fen).getBoard();
+
+        BoardSnapshot snapshot = board.snapshot();
+
+        Assertions.assertEquals(57, snapshot.getFullmoveNumber());
+        Assertions.assertEquals(fen, Fen.toFen(snapshot.toBoard()));
+    }
+}
@@ -0,0 +1,218 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Checks that ChessGame's cached legal moves follow the position, and the
+ * bulk move queries built on them
+ */
+public class ChessGameTests {
+
+    @Test
+    @DisplayName("Cached Moves Follow Made Moves")
+    public void cachedMovesFollowMadeMoves() throws InvalidMoveException {
+        var game = new ChessGame();
+        var e2 = ChessPosition.of(2, 5);
+
+        Assertions.assertEquals(2, game.validMoves(e2).size());
+        game.makeMove(new ChessMove(e2, ChessPosition.of(4, 5), null));
+
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(2, game.validMoves(ChessPosition.of(7, 5)).size());
+        // the queen and bishop lines the pawn opened
+        Assertions.assertEquals(4, game.validMoves(ChessPosition.of(1, 4)).size());
+        Assertions.assertEquals(5, game.validMoves(ChessPosition.of(1, 6)).size());
+    }
+
+    @Test
+    @DisplayName("Cached Moves Follow Direct Board Changes")
+    public void cachedMovesFollowDirectBoardChanges() {
+        var game = new ChessGame();
+        var d1 = ChessPosition.of(1, 4);
+
+        Assertions.assertTrue(game.validMoves(d1).isEmpty());
+        game.getBoard().addPiece(ChessPosition.of(2, 4), null);
+
+        Assertions.assertEquals(6, game.validMoves(d1).size());
+    }
+
+    @Test
+    @DisplayName("Cached Moves Follow New Board")
+    public void cachedMovesFollowNewBoard() {
+        var game = new ChessGame();
+        var e1 = ChessPosition.of(1, 5);
+        Assertions.assertTrue(game.validMoves(e1).isEmpty());
+
+        var board = new ChessBoard();
+        board.addPiece(e1, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        game.setBoard(board);
+
+        Assertions.assertEquals(5, game.validMoves(e1).size());
+    }
+
+    @Test
+    @DisplayName("New Board Keeps Its Side To Move")
+    public void newBoardKeepsItsSideToMove() {
+        var game = new ChessGame();
+        var board = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 b - - 0 1").getBoard();
+
+        game.setBoard(board);
+
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, board.getSideToMove());
+        Assertions.assertEquals(5, game.countValidMoves(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Rejected Move Leaves Cache Usable")
+    public void rejectedMoveLeavesCacheUsable() throws InvalidMoveException {
+        var game = new ChessGame();
+        var g1 = ChessPosition.of(1, 7);
+
+        Assertions.assertThrows(InvalidMoveException.class,
+                () -> game.makeMove(new ChessMove(g1, ChessPosition.of(2, 5), null)));
+        game.makeMove(new ChessMove(g1, ChessPosition.of(3, 6), null));
+
+        Assertions.assertFalse(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(game.isInStalemate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("All Valid Moves Matches Per Square")
+    public void allValidMovesMatchesPerSquare() {
+        var game = new ChessGame();
+        game.getBoard().addPiece(ChessPosition.of(2, 4), null);
+        game.getBoard().addPiece(ChessPosition.of(7, 5), null);
+
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            Set<ChessMove> perSquare = new HashSet<>();
+            for (int row = 1; row <= 8; row++) {
+                for (int col = 1; col <= 8; col++) {
+                    ChessPiece piece = game.getBoard().getPiece(ChessPosition.of(row, col));
+                    if (piece != null && piece.getTeamColor() == color) {
+                        perSquare.addAll(game.validMoves(ChessPosition.of(row, col)));
+                    }
+                }
+            }
+            var all = game.allValidMoves(color);
+            Assertions.assertEquals(perSquare, new HashSet<>(all));
+            Assertions.assertEquals(all.size(), game.countValidMoves(color));
+            Assertions.assertTrue(game.hasAnyValidMove(color));
+        }
+    }
+
+    @Test
+    @DisplayName("No Valid Moves After Fool's Mate")
+    public void noValidMovesAfterFoolsMate() throws InvalidMoveException {
+        var game = new ChessGame();
+        Assertions.assertEquals(20, game.countValidMoves(ChessGame.TeamColor.WHITE));
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 6), ChessPosition.of(3, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(2, 7), ChessPosition.of(4, 7), null));
+        game.makeMove(new ChessMove(ChessPosition.of(8, 4), ChessPosition.of(4, 8), null));
+
+        Assertions.assertFalse(game.hasAnyValidMove(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0, game.countValidMoves(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(game.allValidMoves(ChessGame.TeamColor.WHITE).isEmpty());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(game.hasAnyValidMove(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    public void threefoldRepetition() throws InvalidMoveException {
+        var game = new ChessGame();
+
+        for (int round = 0; round < 2; round++) {
+            Assertions.assertFalse(game.isThreefoldRepetition());
+            shuffleKnights(game);
+        }
+
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertEquals(2, game.getBoard().repetitionCount());
+    }
+
+    @Test
+    @DisplayName("Irreversible Move Clears Repetitions")
+    public void irreversibleMoveClearsRepetitions() throws InvalidMoveException {
+        var game = new ChessGame();
+        shuffleKnights(game);
+        Assertions.assertEquals(1, game.getBoard().repetitionCount());
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        shuffleKnights(game);
+
+        Assertions.assertEquals(1, game.getBoard().repetitionCount());
+        Assertions.assertFalse(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Setting The Board Forgets Earlier Positions")
+    public void settingTheBoardForgetsEarlierPositions() throws InvalidMoveException {
+        var game = new ChessGame();
+        shuffleKnights(game);
+        shuffleKnights(game);
+        Assertions.assertTrue(game.isThreefoldRepetition());
+
+        game.setBoard(new ChessBoard(game.getBoard()));
+        Assertions.assertEquals(0, game.getBoard().repetitionCount());
+
+        // the fourth time overall, but only the second since the board was set
+        shuffleKnights(game);
+        Assertions.assertEquals(1, game.getBoard().repetitionCount());
+        Assertions.assertFalse(game.isThreefoldRepetition());
+
+        var loaded = ChessGame.fromFen(game.toFen());
+        Assertions.assertEquals(0, loaded.getBoard().repetitionCount());
+    }
+
+    @Test
+    @DisplayName("Fifty Move Rule")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.getBoard().setHalfmoveClock(98);
+
+        game.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        Assertions.assertFalse(game.isFiftyMoveRule());
+        game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        Assertions.assertTrue(game.isFiftyMoveRule());
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertFalse(game.isFiftyMoveRule());
+    }
+
+    @Test
+    @DisplayName("Unmake Without Moves Is Rejected")
+    public void unmakeWithoutMovesIsRejected() throws InvalidMoveException {
+        var game = new ChessGame();
+        var board = game.getBoard();
+
+        Assertions.assertThrows(IllegalStateException.class, board::unmakeMove);
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        board.unmakeMove();
+        Assertions.assertThrows(IllegalStateException.class, board::unmakeMove);
+
+        // the board is still usable after the rejected calls
+        Assertions.assertEquals(0, board.getUndoCount());
+        Assertions.assertEquals(Fen.START_POSITION, game.toFen());
+        Assertions.assertEquals(20, game.countValidMoves(ChessGame.TeamColor.WHITE));
+    }
+
+    /**
+     * Both sides develop a knight and bring it back, repeating the position
+     */
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null));
+        game.makeMove(new ChessMove(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null));
+    }
+}
@@ -0,0 +1,114 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Checks the fixed-size binary position encoding
+ */
+public class CompactPositionTests {
+
+    private static final String[] POSITIONS = {
+            Fen.START_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3",
+            "rnbqkbnr/ppp1p1pp/8/8/3pPp2/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 4",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - 12 57",
+            "4k3/8/8/8/8/8/8/4K3 w - - 99 300",
+            "4k3/8/8/8/8/8/8/4K3 b - - 65535 65535",
+    };
+
+    @Test
+    @DisplayName("Round Trips")
+    public void roundTrips() {
+        for (String fen : POSITIONS) {
+            var game = ChessGame.fromFen(fen);
+            ByteBuffer buffer = ByteBuffer.allocate(CompactPosition.ENCODED_SIZE);
+
+            game.encode(buffer);
+            Assertions.assertFalse(buffer.hasRemaining());
+            buffer.flip();
+            var decoded = ChessGame.decode(buffer);
+
+            Assertions.assertEquals(fen, decoded.toFen());
+            Assertions.assertEquals(game.getBoard().zobristKey(), decoded.getBoard().zobristKey());
+        }
+    }
+
+    @Test
+    @DisplayName("Positions Pack Back To Back")
+    public void positionsPackBackToBack() {
+        ByteBuffer buffer = ByteBuffer.allocate(POSITIONS.length * CompactPosition.ENCODED_SIZE);
+        for (String fen : POSITIONS) {
+            CompactPosition.write(ChessGame.fromFen(fen).getBoard(), buffer);
+        }
+        buffer.flip();
+
+        var board = new ChessBoard();
+        for (String fen : POSITIONS) {
+            CompactPosition.read(buffer, board);
+            Assertions.assertEquals(fen, Fen.toFen(board));
+        }
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Encoding Has Fixed Size")
+    public void encodingHasFixedSize() {
+        Assertions.assertEquals(CompactPosition.ENCODED_SIZE, CompactPosition.toBytes(new ChessGame().getBoard()).length);
+        Assertions.assertEquals(CompactPosition.ENCODED_SIZE, CompactPosition.toBytes(new ChessBoard()).length);
+    }
+
+    @Test
+    @DisplayName("Rejects Too Many Pieces")
+    public void rejectsTooManyPieces() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        board.addPiece(ChessPosition.of(4, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CompactPosition.toBytes(board));
+    }
+
+    @Test
+    @DisplayName("Rejects Fullmove Number Past Limit")
+    public void rejectsFullmoveNumberPastLimit() {
+        var board = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 65536").getBoard();
+        ByteBuffer buffer = ByteBuffer.allocate(CompactPosition.ENCODED_SIZE);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CompactPosition.write(board, buffer));
+        Assertions.assertEquals(0, buffer.position());
+    }
+
+    @Test
+    @DisplayName("Rejects Unknown Piece Codes")
+    public void rejectsUnknownPieceCodes() {
+        byte[] bytes = CompactPosition.toBytes(new ChessGame().getBoard());
+        // the first piece code is the high nibble of the first byte after the occupancy
+        bytes[8] = (byte) 0xF0;
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.decode(ByteBuffer.wrap(bytes)));
+    }
+
+    @Test
+    @DisplayName("Damaged Record Leaves Board Alone")
+    public void damagedRecordLeavesBoardAlone() {
+        String fen = POSITIONS[1];
+        var board = ChessGame.fromFen(fen).getBoard();
+        byte[] badPiece = CompactPosition.toBytes(new ChessGame().getBoard());
+        // the last piece code is the low nibble of the last byte before the flags
+        badPiece[23] = (byte) 0xFF;
+        byte[] badEnPassant = CompactPosition.toBytes(new ChessGame().getBoard());
+        // en passant file 15, in bits 5-8 of the flags
+        badEnPassant[24] = (byte) 0x01;
+        badEnPassant[25] = (byte) 0xFE;
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CompactPosition.read(ByteBuffer.wrap(badPiece), board));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CompactPosition.read(ByteBuffer.wrap(badEnPassant), board));
+        Assertions.assertEquals(fen, Fen.toFen(board));
+    }
+}
@@ -0,0 +1,149 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks that ConcurrentChessGame publishes consistent states, including
+ * while many threads read and write at once
+ */
+public class ConcurrentChessGameTests {
+
+    private static final int READERS = 6;
+    private static final int WRITERS = 2;
+    private static final int CHANGES = 2000;
+
+    @Test
+    @DisplayName("Moves Publish New States")
+    public void movesPublishNewStates() throws InvalidMoveException {
+        var game = new ConcurrentChessGame();
+        GameState start = game.getState();
+
+        GameState next = game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+
+        Assertions.assertSame(next, game.getState());
+        Assertions.assertEquals(start.getVersion() + 1, next.getVersion());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, next.getTeamTurn());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, start.getTeamTurn());
+        Assertions.assertEquals(2, start.validMoves(ChessPosition.of(2, 5)).size());
+        Assertions.assertNull(next.validMoves(ChessPosition.of(2, 5)));
+        Assertions.assertEquals(20, next.countValidMoves(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Rejected Moves Publish Nothing")
+    public void rejectedMovesPublishNothing() throws InvalidMoveException {
+        var game = new ConcurrentChessGame();
+        GameState start = game.getState();
+
+        Assertions.assertThrows(InvalidMoveException.class,
+                () -> game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(5, 5), null)));
+        Assertions.assertSame(start, game.getState());
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(4, 4), null));
+        // chosen from the start state, which is now stale
+        Assertions.assertNull(game.makeMove(
+                new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null), start.getVersion()));
+        Assertions.assertEquals(start.getVersion() + 1, game.getState().getVersion());
+    }
+
+    @Test
+    @DisplayName("Readers See Consistent States Under Concurrent Writes")
+    public void readersSeeConsistentStatesUnderConcurrentWrites() throws Exception {
+        var game = new ConcurrentChessGame();
+        var done = new AtomicBoolean();
+        var published = new AtomicLong();
+        var reads = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(READERS + WRITERS);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                readers.add(pool.submit(() -> {
+                    long lastVersion = -1;
+                    while (!done.get()) {
+                        GameState state = game.getState();
+                        Assertions.assertTrue(state.getVersion() >= lastVersion, "Version went backwards");
+                        lastVersion = state.getVersion();
+                        assertConsistent(state);
+                        reads.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                long seed = i;
+                writers.add(pool.submit(() -> {
+                    var random = new Random(seed);
+                    while (published.get() < CHANGES) {
+                        GameState state = game.getState();
+                        ChessMove move = randomMove(state, random);
+                        if (move == null || state.getVersion() % 150 == 149) {
+                            game.setGame(new ChessGame());
+                            published.incrementAndGet();
+                        } else if (game.makeMove(move, state.getVersion()) != null) {
+                            published.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // every successful write published exactly one new version
+        Assertions.assertEquals(published.get(), game.getState().getVersion());
+        Assertions.assertTrue(reads.get() > 0);
+    }
+
+    /**
+     * Rebuilds the position from the snapshot and checks the precomputed
+     * answers against a fresh look at it
+     */
+    private static void assertConsistent(GameState state) {
+        ChessBoard board = state.getBoard().toBoard();
+        Assertions.assertEquals(state.getBoard().zobristKey(), board.zobristKey());
+        ChessGame.TeamColor turn = state.getTeamTurn();
+        var moves = new MoveList();
+        Assertions.assertEquals(MoveGenerator.generateLegalMoves(board, turn, moves), state.countValidMoves(turn));
+        int perSquare = 0;
+        for (int i = 0; i < board.getPieceCount(turn); i++) {
+            perSquare += state.validMoves(board.getPiecePosition(turn, i)).size();
+        }
+        Assertions.assertEquals(moves.size(), perSquare);
+    }
+
+    private static ChessMove randomMove(GameState state, Random random) {
+        List<ChessMove> moves = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = state.getBoard().getPiece(ChessPosition.of(row, col));
+                if (piece != null && piece.getTeamColor() == state.getTeamTurn()) {
+                    Collection<ChessMove> valid = state.validMoves(ChessPosition.of(row, col));
+                    moves.addAll(valid);
+                }
+            }
+        }
+        return moves.isEmpty() ? null : moves.get(random.nextInt(moves.size()));
+    }
+}
@@ -0,0 +1,163 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks reading and writing positions as FEN
+ */
+public class FenTests {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+    private static final String POSITION_6 =
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+
+    @Test
+    @DisplayName("Start Position Matches Reset Board")
+    public void startPositionMatchesResetBoard() {
+        var game = ChessGame.fromFen(Fen.START_POSITION);
+        var reset = new ChessGame();
+
+        Assertions.assertEquals(reset.getBoard(), game.getBoard());
+        Assertions.assertEquals(reset.getBoard().zobristKey(), game.getBoard().zobristKey());
+        Assertions.assertEquals(Fen.START_POSITION, reset.toFen());
+    }
+
+    @Test
+    @DisplayName("Round Trips")
+    public void roundTrips() {
+        for (String fen : new String[]{KIWIPETE, POSITION_4, POSITION_5, POSITION_6,
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - 12 57"}) {
+            Assertions.assertEquals(fen, ChessGame.fromFen(fen).toFen());
+        }
+    }
+
+    @Test
+    @DisplayName("Loaded Positions Match Perft")
+    public void loadedPositionsMatchPerft() {
+        Assertions.assertEquals(97862, Perft.perft(ChessGame.fromFen(KIWIPETE), 3));
+        Assertions.assertEquals(9467, Perft.perft(ChessGame.fromFen(POSITION_4), 3));
+        Assertions.assertEquals(62379, Perft.perft(ChessGame.fromFen(POSITION_5), 3));
+        Assertions.assertEquals(89890, Perft.perft(ChessGame.fromFen(POSITION_6), 3));
+    }
+
+    @Test
+    @DisplayName("Counters And En Passant Follow Moves")
+    public void countersAndEnPassantFollowMoves() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        // no black pawn can take on e3, so no en passant square is written
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", game.toFen());
+
+        game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        String fen = "rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3";
+        Assertions.assertEquals(fen, game.toFen());
+
+        var loaded = ChessGame.fromFen(fen);
+        Assertions.assertEquals(game.getBoard().zobristKey(), loaded.getBoard().zobristKey());
+        Assertions.assertEquals(3, loaded.getBoard().getFullmoveNumber());
+    }
+
+    @Test
+    @DisplayName("Uncapturable En Passant Square Is Dropped")
+    public void uncapturableEnPassantSquareIsDropped() {
+        var game = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+
+        Assertions.assertEquals(ChessBoard.NO_SQUARE, game.getBoard().getEnPassantSquare());
+    }
+
+    @Test
+    @DisplayName("En Passant Square Needs A Pushed Pawn")
+    public void enPassantSquareNeedsAPushedPawn() {
+        String[] impossible = {
+                // no black pawn on e5 to capture
+                "4k3/8/8/3P4/8/8/8/4K3 w - e6 0 1",
+                // the pawn on e5 can't have just come from e7
+                "4k3/4p3/8/3Pp3/8/8/8/4K3 w - e6 0 1",
+                // something stands on the target square
+                "4k3/8/4n3/3Pp3/8/8/8/4K3 w - e6 0 1",
+        };
+        for (String fen : impossible) {
+            var game = ChessGame.fromFen(fen);
+            Assertions.assertEquals(ChessBoard.NO_SQUARE, game.getBoard().getEnPassantSquare(), fen);
+            Assertions.assertEquals(fen.replace(" e6 ", " - "), game.toFen());
+        }
+
+        var board = ChessGame.fromFen("4k3/8/8/3Pp3/8/8/8/4K3 w - e6 0 1").getBoard();
+        Assertions.assertEquals(Bitboards.square(6, 5), board.getEnPassantSquare());
+    }
+
+    @Test
+    @DisplayName("Bad FEN Leaves Board Alone")
+    public void badFenLeavesBoardAlone() {
+        var board = new ChessBoard();
+        Fen.load(KIWIPETE, board);
+        long key = board.zobristKey();
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Fen.load("4k3/8/8/8/8/8/8/4K3 w - - 0 0", board));
+        Assertions.assertEquals(KIWIPETE, Fen.toFen(board));
+        Assertions.assertEquals(key, board.zobristKey());
+    }
+
+    @Test
+    @DisplayName("Clocks Are Optional")
+    public void clocksAreOptional() {
+        var game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 b - -");
+
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", game.toFen());
+    }
+
+    @Test
+    @DisplayName("Largest Halfmove Clock Survives Make And Unmake")
+    public void largestHalfmoveClockSurvivesMakeAndUnmake() {
+        String fen = "4k3/8/8/8/8/8/8/4K3 w - - 65535 300";
+        var board = ChessGame.fromFen(fen).getBoard();
+        var moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+
+        board.makeMove(moves.get(0));
+        board.unmakeMove();
+
+        Assertions.assertEquals(fen, Fen.toFen(board));
+    }
+
+    @Test
+    @DisplayName("Reuses Board")
+    public void reusesBoard() {
+        var board = new ChessBoard();
+        Fen.load(KIWIPETE, board);
+        Fen.load(POSITION_6, board);
+
+        Assertions.assertEquals(POSITION_6, Fen.toFen(board));
+        Assertions.assertEquals(ChessGame.fromFen(POSITION_6).getBoard().zobristKey(), board.zobristKey());
+    }
+
+    @Test
+    @DisplayName("Rejects Invalid FEN")
+    public void rejectsInvalidFen() {
+        String[] invalid = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 65536 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+        };
+        for (String fen : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+}
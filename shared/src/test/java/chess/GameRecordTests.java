@@ -0,0 +1,148 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Checks that game records replay to the same game in both storage modes
+ */
+public class GameRecordTests {
+
+    // well-known games in SAN, as typical play to measure record sizes on
+    private static final String[] GAMES = {
+            // Morphy v Duke of Brunswick and Count Isouard, Paris 1858
+            "e4 e5 Nf3 d6 d4 Bg4 dxe5 Bxf3 Qxf3 dxe5 Bc4 Nf6 Qb3 Qe7 Nc3 c6 Bg5 b5 Nxb5 cxb5 Bxb5+ Nbd7 "
+                    + "O-O-O Rd8 Rxd7 Rxd7 Rd1 Qe6 Bxd7+ Nxd7 Qb8+ Nxb8 Rd8#",
+            // Anderssen v Dufresne, Berlin 1852
+            "e4 e5 Nf3 Nc6 Bc4 Bc5 b4 Bxb4 c3 Ba5 d4 exd4 O-O d3 Qb3 Qf6 e5 Qg6 Re1 Nge7 Ba3 b5 Qxb5 Rb8 "
+                    + "Qa4 Bb6 Nbd2 Bb7 Ne4 Qf5 Bxd3 Qh5 Nf6+ gxf6 exf6 Rg8 Rad1 Qxf3 Rxe7+ Nxe7 Qxd7+ Kxd7 "
+                    + "Bf5+ Ke8 Bd7+ Kf8 Bxe7#",
+            // Kasparov v Topalov, Wijk aan Zee 1999
+            "e4 d6 d4 Nf6 Nc3 g6 Be3 Bg7 Qd2 c6 f3 b5 Nge2 Nbd7 Bh6 Bxh6 Qxh6 Bb7 a3 e5 O-O-O Qe7 Kb1 a6 "
+                    + "Nc1 O-O-O Nb3 exd4 Rxd4 c5 Rd1 Nb6 g3 Kb8 Na5 Ba8 Bh3 d5 Qf4+ Ka7 Rhe1 d4 Nd5 Nbxd5 "
+                    + "exd5 Qd6 Rxd4 cxd4 Re7+ Kb6 Qxd4+ Kxa5 b4+ Ka4 Qc3 Qxd5 Ra7 Bb7 Rxb7 Qc4 Qxf6 Kxa3 "
+                    + "Qxa6+ Kxb4 c3+ Kxc3 Qa1+ Kd2 Qb2+ Kd1 Bf1 Rd2 Rd7 Rxd7 Bxc4 bxc4 Qxh8 Rd3 Qa8 c3 "
+                    + "Qa4+ Ke1 f4 f5 Kc1 Rd2 Qa7",
+            // D. Byrne v Fischer, New York 1956
+            "Nf3 Nf6 c4 g6 Nc3 Bg7 d4 O-O Bf4 d5 Qb3 dxc4 Qxc4 c6 e4 Nbd7 Rd1 Nb6 Qc5 Bg4 Bg5 Na4 Qa3 "
+                    + "Nxc3 bxc3 Nxe4 Bxe7 Qb6 Bc4 Nxc3 Bc5 Rfe8+ Kf1 Be6 Bxb6 Bxc4+ Kg1 Ne2+ Kf1 Nxd4+ Kg1 "
+                    + "Ne2+ Kf1 Nc3+ Kg1 axb6 Qb4 Ra4 Qxb6 Nxd1 h3 Rxa2 Kh2 Nxf2 Re1 Rxe1 Qd8+ Bf8 Nxe1 Bd5 "
+                    + "Nf3 Ne4 Qb8 b5 h4 h5 Ne5 Kg7 Kg1 Bc5+ Kf1 Ng3+ Ke1 Bb4+ Kd1 Bb3+ Kc1 Ne2+ Kb1 Nc3+ "
+                    + "Kc1 Rc2#",
+            // a closed Ruy Lopez main line
+            "e4 e5 Nf3 Nc6 Bb5 a6 Ba4 Nf6 O-O Be7 Re1 b5 Bb3 d6 c3 O-O h3 Nb8 d4 Nbd7 Nbd2 Bb7 Bc2 Re8 "
+                    + "Nf1 Bf8 Ng3 g6 a4 c5 d5 c4 Bg5 h6 Be3 Nc5 Qd2 h5",
+    };
+
+    @Test
+    @DisplayName("Random Games Round Trip")
+    public void randomGamesRoundTrip() {
+        var random = new Random(240);
+        for (int i = 0; i < 20; i++) {
+            var game = randomGame(new ChessGame(), random, 120);
+            for (boolean rangeCoded : new boolean[]{false, true}) {
+                String fen = game.toFen();
+                long key = game.getBoard().zobristKey();
+
+                var decoded = GameRecord.decode(GameRecord.encode(game, rangeCoded));
+
+                Assertions.assertEquals(fen, decoded.toFen());
+                Assertions.assertEquals(key, decoded.getBoard().zobristKey());
+                Assertions.assertEquals(game.getBoard().getUndoCount(), decoded.getBoard().getUndoCount());
+                // encoding leaves the game as it found it
+                Assertions.assertEquals(fen, game.toFen());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Custom Start Position Is Kept")
+    public void customStartPositionIsKept() {
+        String start = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        var game = randomGame(ChessGame.fromFen(start), new Random(7), 40);
+
+        var decoded = GameRecord.decode(GameRecord.encode(game, true));
+
+        Assertions.assertEquals(game.toFen(), decoded.toFen());
+        for (int i = decoded.getBoard().getUndoCount(); i > 0; i--) {
+            decoded.getBoard().unmakeMove();
+        }
+        Assertions.assertEquals(start, decoded.toFen());
+    }
+
+    @Test
+    @DisplayName("Range Coding Takes Less Than A Byte Per Move")
+    public void rangeCodingTakesLessThanAByte() {
+        var game = randomGame(new ChessGame(), new Random(1), 200);
+        int plies = game.getBoard().getUndoCount();
+
+        int plain = GameRecord.encode(game, false).length;
+        int rangeCoded = GameRecord.encode(game, true).length;
+
+        Assertions.assertTrue(plain > plies);
+        Assertions.assertTrue(rangeCoded < plies, rangeCoded + " bytes range coded for " + plies + " moves");
+        Assertions.assertEquals(0, GameRecord.encode(new ChessGame(), false)[0]);
+        Assertions.assertEquals(2, GameRecord.encode(new ChessGame(), false).length);
+    }
+
+    @Test
+    @DisplayName("Real Games Beat Uniform Packing")
+    public void realGamesBeatUniformPacking() throws InvalidMoveException {
+        int rangeCoded = 0;
+        int uniform = 0;
+        for (String moves : GAMES) {
+            var game = new ChessGame();
+            var legal = new MoveList();
+            double uniformBits = 0;
+            for (String san : moves.split(" ")) {
+                legal.clear();
+                int count = MoveGenerator.generateLegalMoves(game.getBoard(), game.getTeamTurn(), legal);
+                // an index that treats every legal move as equally likely costs log2 of their number
+                uniformBits += Math.log(count) / Math.log(2);
+                game.makeMove(game.parseMove(san));
+            }
+            byte[] record = GameRecord.encode(game, true);
+            Assertions.assertEquals(game.toFen(), GameRecord.decode(record).toFen());
+
+            rangeCoded += record.length;
+            // the same flag byte and one-byte move count, then the packed indexes
+            uniform += 2 + (int) Math.ceil(uniformBits / 8);
+        }
+
+        Assertions.assertTrue(rangeCoded < uniform, rangeCoded + " bytes range coded, " + uniform + " packed");
+    }
+
+    @Test
+    @DisplayName("Rejects Damaged Records")
+    public void rejectsDamagedRecords() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        byte[] record = GameRecord.encode(game, false);
+
+        // there are only 20 moves from the start position
+        record[record.length - 1] = 20;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameRecord.decode(record));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GameRecord.decode(new byte[]{0, 5, 0}));
+    }
+
+    /**
+     * Plays random legal moves until the game ends or the move limit is reached
+     */
+    private static ChessGame randomGame(ChessGame game, Random random, int maxPlies) {
+        ChessBoard board = game.getBoard();
+        var moves = new MoveList();
+        for (int ply = 0; ply < maxPlies; ply++) {
+            moves.clear();
+            int count = MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+            if (count == 0) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(count)));
+        }
+        return game;
+    }
+}
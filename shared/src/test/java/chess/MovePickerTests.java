@@ -0,0 +1,170 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static passoff.chess.TestUtilities.loadBoard;
+
+/**
+ * Checks that MovePicker hands out exactly the legal moves, in stage order
+ */
+public class MovePickerTests {
+
+    @Test
+    @DisplayName("Picks Every Legal Move Once")
+    public void picksEveryLegalMoveOnce() {
+        var board = kiwipeteBoard();
+
+        Set<Integer> picked = pickAll(new MovePicker(board, ChessGame.TeamColor.WHITE));
+
+        Assertions.assertEquals(legalMoves(board, ChessGame.TeamColor.WHITE), picked);
+    }
+
+    @Test
+    @DisplayName("Perft With Picker Matches Generator")
+    public void perftWithPickerMatchesGenerator() {
+        var board = kiwipeteBoard();
+        var pickers = new MovePicker[4];
+        for (int i = 0; i < pickers.length; i++) {
+            pickers[i] = new MovePicker();
+        }
+
+        Assertions.assertEquals(97862, perft(board, 3, pickers));
+    }
+
+    @Test
+    @DisplayName("Hash Move Comes First")
+    public void hashMoveComesFirst() {
+        var board = kiwipeteBoard();
+        // e1 to g1, castling kingside
+        int castle = Move.of(Bitboards.square(1, 5), Bitboards.square(1, 7), Move.CASTLING, false);
+        var picker = new MovePicker();
+        picker.reset(board, ChessGame.TeamColor.WHITE, castle);
+
+        Assertions.assertEquals(castle, picker.next());
+        Set<Integer> rest = pickAll(picker);
+        Assertions.assertFalse(rest.contains(castle));
+        Assertions.assertEquals(47, rest.size());
+    }
+
+    @Test
+    @DisplayName("Illegal Hash Move Is Skipped")
+    public void illegalHashMoveIsSkipped() {
+        var board = kiwipeteBoard();
+        // a1 to a8 runs through the white pawn on a2
+        int blocked = Move.of(Bitboards.square(1, 1), Bitboards.square(8, 1), Move.NORMAL, true);
+        var picker = new MovePicker();
+        picker.reset(board, ChessGame.TeamColor.WHITE, blocked);
+
+        Set<Integer> picked = pickAll(picker);
+
+        Assertions.assertFalse(picked.contains(blocked));
+        Assertions.assertEquals(legalMoves(board, ChessGame.TeamColor.WHITE), picked);
+    }
+
+    @Test
+    @DisplayName("Captures Ordered By Victim Then Attacker")
+    public void capturesOrderedByVictimThenAttacker() {
+        var board = loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | |p| |q| | | |
+                | | | |P| | | | |
+                | | | | | | | | |
+                | | | | | | | |Q|
+                | | | | | |K| | |
+                """);
+        var picker = new MovePicker(board, ChessGame.TeamColor.WHITE);
+
+        // the pawn taking the queen beats everything, then the queen taking the queen
+        int first = picker.next();
+        Assertions.assertEquals(Bitboards.square(4, 4), Move.from(first));
+        Assertions.assertEquals(Bitboards.square(5, 5), Move.to(first));
+        int second = picker.next();
+        Assertions.assertEquals(Bitboards.square(2, 8), Move.from(second));
+        Assertions.assertEquals(Bitboards.square(5, 5), Move.to(second));
+        Assertions.assertEquals(Bitboards.square(5, 3), Move.to(picker.next()));
+        Assertions.assertFalse(Move.isCapture(picker.next()));
+    }
+
+    @Test
+    @DisplayName("Quiet Promotions Before Other Quiet Moves")
+    public void quietPromotionsBeforeOtherQuietMoves() {
+        var board = loadBoard("""
+                | | | | |k| | | |
+                | |P| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        var picker = new MovePicker(board, ChessGame.TeamColor.WHITE);
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(Move.isPromotion(picker.next()));
+        }
+        int move;
+        int quiet = 0;
+        while ((move = picker.next()) != Move.NONE) {
+            Assertions.assertFalse(Move.isPromotion(move));
+            quiet++;
+        }
+        Assertions.assertEquals(5, quiet);
+    }
+
+    private static long perft(ChessBoard board, int depth, MovePicker[] pickers) {
+        MovePicker picker = pickers[depth];
+        picker.reset(board, board.getSideToMove(), Move.NONE);
+        long nodes = 0;
+        int move;
+        while ((move = picker.next()) != Move.NONE) {
+            if (depth == 1) {
+                nodes++;
+            } else {
+                board.makeMove(move);
+                nodes += perft(board, depth - 1, pickers);
+                board.unmakeMove();
+            }
+        }
+        return nodes;
+    }
+
+    private static Set<Integer> pickAll(MovePicker picker) {
+        Set<Integer> picked = new HashSet<>();
+        int move;
+        while ((move = picker.next()) != Move.NONE) {
+            Assertions.assertTrue(picked.add(move), "Picked " + Move.toChessMove(move) + " twice");
+        }
+        return picked;
+    }
+
+    private static Set<Integer> legalMoves(ChessBoard board, ChessGame.TeamColor color) {
+        var moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, color, moves);
+        Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            set.add(moves.get(i));
+        }
+        return set;
+    }
+
+    private static ChessBoard kiwipeteBoard() {
+        return loadBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """);
+    }
+}
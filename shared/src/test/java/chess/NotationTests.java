@@ -0,0 +1,120 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Checks reading and writing moves in UCI and SAN
+ */
+public class NotationTests {
+
+    @Test
+    @DisplayName("UCI Round Trips")
+    public void uciRoundTrips() {
+        var game = ChessGame.fromFen("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1");
+        var moves = legalMoves(game.getBoard());
+
+        for (int i = 0; i < moves.size(); i++) {
+            String uci = Notation.toUci(moves.get(i));
+            Assertions.assertEquals(moves.get(i), Notation.parseUci(uci, moves), uci);
+        }
+        Assertions.assertEquals("b2a1q", Notation.toUci(Move.promotion(Bitboards.square(2, 2),
+                Bitboards.square(1, 1), ChessPiece.PieceType.QUEEN, true)));
+        Assertions.assertEquals(Move.NONE, Notation.parseUci("e2e4", moves));
+    }
+
+    @Test
+    @DisplayName("SAN Round Trips In Random Games")
+    public void sanRoundTripsInRandomGames() {
+        var random = new Random(240);
+        var scratch = new MoveList();
+        for (int game = 0; game < 20; game++) {
+            var board = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1")
+                    .getBoard();
+            for (int ply = 0; ply < 60; ply++) {
+                var moves = legalMoves(board);
+                if (moves.size() == 0) {
+                    break;
+                }
+                for (int i = 0; i < moves.size(); i++) {
+                    String san = Notation.toSan(board, moves.get(i), moves, scratch);
+                    Assertions.assertEquals(moves.get(i), Notation.parseSan(san, board, moves), san);
+                }
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("SAN Uses Only Needed Disambiguation")
+    public void sanUsesOnlyNeededDisambiguation() throws InvalidMoveException {
+        // knights on b8 and f6 can both reach d7, rooks on a1 and a5 can both reach a3,
+        // and queens on h4, e4 and h1 can all reach e1
+        var game = ChessGame.fromFen("1n4k1/8/5n2/R7/4Q2Q/2K5/8/R6Q w - - 0 1");
+
+        Assertions.assertEquals("R1a3", game.toSan(move(1, 1, 3, 1)));
+        Assertions.assertEquals("Qh4e1", game.toSan(move(4, 8, 1, 5)));
+        Assertions.assertEquals("Qee1", game.toSan(move(4, 5, 1, 5)));
+        Assertions.assertEquals("Qxf6", game.toSan(move(4, 8, 6, 6)));
+        game.makeMove(move(4, 5, 4, 6));
+
+        Assertions.assertEquals("Nbd7", game.toSan(move(8, 2, 7, 4)));
+        Assertions.assertEquals("Nfd7", game.toSan(move(6, 6, 7, 4)));
+    }
+
+    @Test
+    @DisplayName("SAN Marks Check And Mate")
+    public void sanMarksCheckAndMate() throws InvalidMoveException {
+        var game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R3K3 w Q - 0 1");
+
+        Assertions.assertEquals("Ra8#", game.toSan(move(1, 1, 8, 1)));
+        Assertions.assertEquals("O-O-O", game.toSan(move(1, 5, 1, 3)));
+
+        game = ChessGame.fromFen("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+        Assertions.assertEquals("b8=Q+", game.toSan(move(7, 2, 8, 2, ChessPiece.PieceType.QUEEN)));
+        Assertions.assertEquals("b8=N", game.toSan(move(7, 2, 8, 2, ChessPiece.PieceType.KNIGHT)));
+    }
+
+    @Test
+    @DisplayName("Game Reads Either Notation")
+    public void gameReadsEitherNotation() throws InvalidMoveException {
+        var game = new ChessGame();
+        for (String notation : new String[]{"e4", "e7e5", "Nf3", "b8c6", "Bb5", "a6", "Bxc6", "dxc6", "O-O"}) {
+            game.makeMove(game.parseMove(notation));
+        }
+
+        Assertions.assertEquals("r1bqkbnr/1pp2ppp/p1p5/4p3/4P3/5N2/PPPP1PPP/RNBQ1RK1 b kq - 1 5", game.toFen());
+        Assertions.assertEquals(move(7, 6, 5, 6), game.parseMove("f5!?"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> game.parseMove("Ke6"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> game.parseMove("e7e5"));
+    }
+
+    @Test
+    @DisplayName("Rejects Invalid Notation")
+    public void rejectsInvalidNotation() {
+        var game = new ChessGame();
+        for (String notation : new String[]{"", "e", "e2e9", "Xe4", "e2e4k", "Ne2e4x4", "O-O-", "e8=P"}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> game.parseMove(notation), notation);
+        }
+        // both knights can reach d2
+        var ambiguous = ChessGame.fromFen("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ambiguous.parseMove("Nd2"));
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return move(fromRow, fromCol, toRow, toCol, null);
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol, ChessPiece.PieceType promotion) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), promotion);
+    }
+
+    private static MoveList legalMoves(ChessBoard board) {
+        var moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+        return moves;
+    }
+}
@@ -0,0 +1,203 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static passoff.chess.TestUtilities.loadBoard;
+
+/**
+ * Checks move generation against the published perft node counts from
+ * https://www.chessprogramming.org/Perft_Results and prints nodes per second
+ * for each run
+ */
+public class PerftTests {
+
+    @Test
+    @DisplayName("Initial Position")
+    public void initialPosition() {
+        var board = new ChessBoard();
+        board.resetBoard();
+
+        assertPerft("initial", board, 1, 20);
+        assertPerft("initial", board, 2, 400);
+        assertPerft("initial", board, 3, 8902);
+        assertPerft("initial", board, 4, 197281);
+        assertPerft("initial", board, 5, 4865609);
+    }
+
+    @Test
+    @DisplayName("Kiwipete")
+    public void kiwipete() {
+        var board = kiwipeteBoard();
+
+        assertPerft("kiwipete", board, 1, 48);
+        assertPerft("kiwipete", board, 2, 2039);
+        assertPerft("kiwipete", board, 3, 97862);
+        assertPerft("kiwipete", board, 4, 4085603);
+    }
+
+    @Test
+    @DisplayName("En Passant Discovered Check")
+    public void enPassantDiscoveredCheck() {
+        // position 3: the rook on the 5th row pins pawns against the king along the row
+        var board = loadBoard("""
+                | | | | | | | | |
+                | | |p| | | | | |
+                | | | |p| | | | |
+                |K|P| | | | | |r|
+                | |R| | | |p| |k|
+                | | | | | | | | |
+                | | | | |P| |P| |
+                | | | | | | | | |
+                """);
+        board.setCastlingRights(0);
+
+        assertPerft("position 3", board, 1, 14);
+        assertPerft("position 3", board, 2, 191);
+        assertPerft("position 3", board, 3, 2812);
+        assertPerft("position 3", board, 4, 43238);
+        assertPerft("position 3", board, 5, 674624);
+    }
+
+    @Test
+    @DisplayName("Promotions")
+    public void promotions() {
+        // position 4: promotions with and without capture on both sides
+        var board = loadBoard("""
+                |r| | | |k| | |r|
+                |P|p|p|p| |p|p|p|
+                | |b| | | |n|b|N|
+                |n|P| | | | | | |
+                |B|B|P| |P| | | |
+                |q| | | | |N| | |
+                |P|p| |P| | |P|P|
+                |R| | |Q| |R|K| |
+                """);
+        board.setCastlingRights(ChessBoard.BLACK_KINGSIDE | ChessBoard.BLACK_QUEENSIDE);
+
+        assertPerft("position 4", board, 1, 6);
+        assertPerft("position 4", board, 2, 264);
+        assertPerft("position 4", board, 3, 9467);
+        assertPerft("position 4", board, 4, 422333);
+    }
+
+    @Test
+    @DisplayName("Promotion Into Check")
+    public void promotionIntoCheck() {
+        // position 5
+        var board = loadBoard("""
+                |r|n|b|q| |k| |r|
+                |p|p| |P|b|p|p|p|
+                | | |p| | | | | |
+                | | | | | | | | |
+                | | |B| | | | | |
+                | | | | | | | | |
+                |P|P|P| |N|n|P|P|
+                |R|N|B|Q|K| | |R|
+                """);
+        board.setCastlingRights(ChessBoard.WHITE_KINGSIDE | ChessBoard.WHITE_QUEENSIDE);
+
+        assertPerft("position 5", board, 1, 44);
+        assertPerft("position 5", board, 2, 1486);
+        assertPerft("position 5", board, 3, 62379);
+        assertPerft("position 5", board, 4, 2103487);
+    }
+
+    @Test
+    @DisplayName("Divide Matches Perft")
+    public void divideMatchesPerft() {
+        var board = new ChessBoard();
+        board.resetBoard();
+
+        Map<ChessMove, Long> divide = Perft.perftDivide(board, 3);
+
+        Assertions.assertEquals(20, divide.size());
+        Assertions.assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(600, divide.get(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)));
+    }
+
+    @Test
+    @DisplayName("Perft Leaves Board Unchanged")
+    public void perftLeavesBoardUnchanged() {
+        var game = new ChessGame();
+        long key = game.getBoard().zobristKey();
+
+        Perft.perft(game, 3);
+
+        Assertions.assertEquals(key, game.getBoard().zobristKey());
+        Assertions.assertEquals(0, game.getBoard().getUndoCount());
+    }
+
+    @Test
+    @DisplayName("Parallel Perft Matches Serial")
+    public void parallelPerft() {
+        var board = kiwipeteBoard();
+        long key = board.zobristKey();
+
+        Assertions.assertEquals(97862, Perft.parallelPerft(board, 3, 4));
+        Assertions.assertEquals(4085603, Perft.parallelPerft(board, 4, 4, 2, null));
+        Assertions.assertEquals(key, board.zobristKey());
+        Assertions.assertEquals(0, board.getUndoCount());
+    }
+
+    @Test
+    @DisplayName("Parallel Perft With Shared Table")
+    public void parallelPerftWithTable() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        var table = new PerftTable(1 << 16);
+
+        long start = System.nanoTime();
+        long nodes = Perft.parallelPerft(board, 5, 4, 2, table);
+        long elapsed = System.nanoTime() - start;
+
+        Assertions.assertEquals(4865609, nodes);
+        // a second run answers mostly from the table
+        Assertions.assertEquals(4865609, Perft.parallelPerft(board, 5, 2, 1, table));
+        System.out.printf("parallel perft initial depth 5 with table: %d nodes in %.1f ms%n",
+                nodes, elapsed / 1e6);
+    }
+
+    @Test
+    @DisplayName("Copied Board Is Independent")
+    public void copiedBoardIsIndependent() {
+        var board = kiwipeteBoard();
+        var copy = new ChessBoard(board);
+
+        Assertions.assertEquals(board, copy);
+        Assertions.assertEquals(board.zobristKey(), copy.zobristKey());
+        Assertions.assertEquals(Perft.perft(board, 3), Perft.perft(copy, 3));
+
+        var moves = new MoveList();
+        MoveGenerator.generateLegalMoves(copy, copy.getSideToMove(), moves);
+        copy.makeMove(moves.get(0));
+        Assertions.assertNotEquals(board.zobristKey(), copy.zobristKey());
+        Assertions.assertEquals(48, Perft.perft(board, 1));
+    }
+
+    private static void assertPerft(String name, ChessBoard board, int depth, long expected) {
+        long start = System.nanoTime();
+        long nodes = Perft.perft(board, depth);
+        long elapsed = System.nanoTime() - start;
+
+        Assertions.assertEquals(expected, nodes, "Wrong perft(" + depth + ") for " + name);
+        System.out.printf("perft %s depth %d: %d nodes in %.1f ms (%.0f nodes/s)%n",
+                name, depth, nodes, elapsed / 1e6, nodes / (elapsed / 1e9));
+    }
+
+    private static ChessBoard kiwipeteBoard() {
+        return loadBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """);
+    }
+}
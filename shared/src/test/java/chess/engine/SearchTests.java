@@ -0,0 +1,142 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the search finds forced wins, respects its budgets and
+ * reports lines that can actually be played
+ */
+public class SearchTests {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void findsMateInOne() {
+        var game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R3K3 w Q - 0 1");
+
+        SearchResult result = new Search(1).search(game, SearchLimits.depth(4));
+
+        Assertions.assertEquals(move(1, 1, 8, 1), result.getBestMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(1, result.getMatePlies());
+        Assertions.assertEquals(1, result.getMateMoves());
+        Assertions.assertEquals(Search.MATE - 1, result.getScore());
+    }
+
+    @Test
+    @DisplayName("Finds Mate In Two")
+    public void findsMateInTwo() throws InvalidMoveException {
+        var game = ChessGame.fromFen("r2qkb1r/pp2nppp/3p4/2pNN1B1/2BnP3/3P4/PPP2PPP/R2bK2R w KQkq - 1 1");
+
+        SearchResult result = new Search(1).search(game, SearchLimits.depth(6));
+
+        Assertions.assertEquals(move(5, 4, 6, 6), result.getBestMove());
+        Assertions.assertEquals(3, result.getMatePlies());
+        Assertions.assertTrue(result.toString().contains(" score mate 2 "), result.toString());
+        // the line ends in mate when played out
+        for (ChessMove move : result.getPrincipalVariation()) {
+            game.makeMove(move);
+        }
+        Assertions.assertTrue(game.isInCheckmate(game.getTeamTurn()));
+    }
+
+    @Test
+    @DisplayName("Wins Hanging Material")
+    public void winsHangingMaterial() {
+        // the knight on c3 can take the undefended queen on d5
+        var game = ChessGame.fromFen("4k3/8/8/3q4/8/2N5/8/4K3 w - - 0 1");
+
+        SearchResult result = new Search(1).search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(move(3, 3, 5, 4), result.getBestMove());
+        Assertions.assertTrue(result.getScore() > 200, "score " + result.getScore());
+    }
+
+    @Test
+    @DisplayName("Sees Recaptures In Quiescence")
+    public void seesRecapturesInQuiescence() {
+        // the pawn on e4 is defended by the pawn on d5, so the queen must not take it
+        var game = ChessGame.fromFen("4k3/8/8/3p4/4p3/8/8/4QK2 w - - 0 1");
+
+        SearchResult result = new Search(1).search(game, SearchLimits.depth(1));
+
+        Assertions.assertNotEquals(move(1, 5, 4, 5), result.getBestMove());
+    }
+
+    @Test
+    @DisplayName("Counts Mate Against In Moves")
+    public void countsMateAgainstInMoves() {
+        // any pawn move, then Qg7#
+        var game = ChessGame.fromFen("7k/p7/5KQ1/8/8/8/8/8 b - - 0 1");
+
+        SearchResult result = new Search(1).search(game, SearchLimits.depth(4));
+
+        Assertions.assertEquals(-2, result.getMatePlies());
+        Assertions.assertEquals(-1, result.getMateMoves());
+        Assertions.assertTrue(result.toString().contains(" score mate -1 "), result.toString());
+    }
+
+    @Test
+    @DisplayName("Reports Game Over")
+    public void reportsGameOver() {
+        var mated = ChessGame.fromFen("R5k1/5ppp/8/8/8/8/8/4K3 b - - 1 1");
+        var stalemated = ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+
+        SearchResult mate = new Search(1).search(mated, SearchLimits.depth(3));
+        SearchResult stalemate = new Search(1).search(stalemated, SearchLimits.depth(3));
+
+        Assertions.assertNull(mate.getBestMove());
+        Assertions.assertEquals(-Search.MATE, mate.getScore());
+        Assertions.assertNull(stalemate.getBestMove());
+        Assertions.assertEquals(0, stalemate.getScore());
+        Assertions.assertTrue(stalemate.getPrincipalVariation().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Respects Node And Time Budgets")
+    public void respectsNodeAndTimeBudgets() {
+        var game = ChessGame.fromFen(KIWIPETE);
+        var search = new Search(1);
+
+        SearchResult byNodes = search.search(game, SearchLimits.nodes(20_000));
+        Assertions.assertTrue(byNodes.getNodes() <= 20_000, "searched " + byNodes.getNodes());
+        Assertions.assertTrue(byNodes.getDepth() >= 1);
+        Assertions.assertTrue(game.validMoves(byNodes.getBestMove().getStartPosition())
+                .contains(byNodes.getBestMove()));
+
+        SearchResult byTime = search.search(game, SearchLimits.time(200));
+        Assertions.assertTrue(byTime.getTimeMillis() < 1000, "took " + byTime.getTimeMillis() + " ms");
+        Assertions.assertTrue(byTime.getDepth() >= 1);
+
+        // even a budget too small to finish depth 1 gives a legal move
+        SearchResult tiny = search.search(game, SearchLimits.nodes(1));
+        Assertions.assertTrue(game.validMoves(tiny.getBestMove().getStartPosition()).contains(tiny.getBestMove()));
+    }
+
+    @Test
+    @DisplayName("Principal Variation Is Playable And Game Is Untouched")
+    public void principalVariationIsPlayable() throws InvalidMoveException {
+        var game = ChessGame.fromFen(KIWIPETE);
+
+        SearchResult result = new Search(1).search(game, SearchLimits.depth(5));
+
+        Assertions.assertEquals(KIWIPETE, game.toFen());
+        Assertions.assertEquals(5, result.getDepth());
+        Assertions.assertFalse(result.getPrincipalVariation().isEmpty());
+        Assertions.assertEquals(result.getBestMove(), result.getPrincipalVariation().get(0));
+        for (ChessMove move : result.getPrincipalVariation()) {
+            game.makeMove(move);
+        }
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+}